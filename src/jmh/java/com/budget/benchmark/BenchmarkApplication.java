@@ -0,0 +1,38 @@
+package com.budget.benchmark;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Application context for repository benchmarks: the full persistence and service
+ * layers against a private in-memory H2 database, without the web tier. Properties
+ * passed to start, as "name=value", override the defaults.
+ */
+@SpringBootApplication(scanBasePackages = {"com.budget.service", "com.budget.config"})
+@EnableJpaRepositories("com.budget.repository")
+@EntityScan("com.budget.model")
+public class BenchmarkApplication {
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        SpringApplication application = new SpringApplication(BenchmarkApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.sql.init.mode=never",
+                "--spring.h2.console.enabled=false",
+                "--logging.level.root=WARN"));
+        // Later arguments override earlier ones
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return application.run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,58 @@
+package com.budget.benchmark;
+
+import com.budget.config.TenantContext;
+import com.budget.model.Category;
+import com.budget.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic datasets shared by the benchmarks. The same sizes always produce
+ * the same rows, so results are comparable between runs and releases.
+ */
+public final class BenchmarkData {
+
+    /** Tenant that owns every generated category and expense. */
+    public static final long TENANT = TenantContext.DEFAULT_TENANT;
+
+    /** Month every generated expense falls in. */
+    public static final YearMonth MONTH = YearMonth.of(2024, 12);
+
+    private BenchmarkData() {}
+
+    public static List<Category> categories(int count) {
+        List<Category> categories = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Category category = new Category("Category " + i, "#6b7280", BigDecimal.valueOf(100L * i), "");
+            category.setId((long) i);
+            category.setTenantId(TENANT);
+            categories.add(category);
+        }
+        return categories;
+    }
+
+    public static List<Expense> expenses(int count, List<Category> categories) {
+        Random random = new Random(42);
+        List<Expense> expenses = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Expense expense = new Expense(
+                    BigDecimal.valueOf(random.nextInt(100_000), 2),
+                    "Expense " + i,
+                    MONTH.atDay(1 + random.nextInt(MONTH.lengthOfMonth())),
+                    categories.get(random.nextInt(categories.size()))
+            );
+            expense.setId((long) i);
+            expenses.add(expense);
+        }
+        return expenses;
+    }
+
+    public static LocalDate monthStart() {
+        return MONTH.atDay(1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.budget.benchmark;
+
+import com.budget.model.Expense;
+import com.budget.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures summing a month's expense amounts, the reduction every summary total relies on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BigDecimalReductionBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int expenses;
+
+    private List<BigDecimal> amounts;
+
+    @Setup
+    public void setUp() {
+        amounts = BenchmarkData.expenses(expenses, BenchmarkData.categories(10)).stream()
+                .map(Expense::getAmount)
+                .toList();
+    }
+
+    @Benchmark
+    public BigDecimal streamReduce() {
+        return amounts.stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal loop() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal amount : amounts) {
+            total = total.add(amount);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal money() {
+        long cents = 0;
+        for (BigDecimal amount : amounts) {
+            cents = Math.addExact(cents, Money.of(amount).cents());
+        }
+        return new Money(cents).toBigDecimal();
+    }
+
+    @Benchmark
+    public long unscaledCents() {
+        long total = 0;
+        for (BigDecimal amount : amounts) {
+            total += amount.unscaledValue().longValue();
+        }
+        return total;
+    }
+}
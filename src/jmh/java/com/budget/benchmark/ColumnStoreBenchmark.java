@@ -0,0 +1,104 @@
+package com.budget.benchmark;
+
+import com.budget.dto.CategoryTotalDTO;
+import com.budget.dto.DailyTotalDTO;
+import com.budget.dto.DescriptionTotalDTO;
+import com.budget.model.Category;
+import com.budget.model.Expense;
+import com.budget.service.ExpenseColumnStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures full scans of the in-memory column store over ten years of expenses:
+ * per-category totals for one month and for the whole range, per-day totals for a
+ * year, and the top descriptions for a month and for a year. Descriptions are a few
+ * recurring ones plus, at the larger cardinality, card-feed style merchant names, so
+ * a month only uses part of the dictionary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ColumnStoreBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2015, 1, 1);
+    private static final int DAYS = 3653;
+    private static final int CHUNK_SIZE = 100_000;
+    private static final String[] DESCRIPTIONS = {
+            "Groceries", "Rent", "Electricity", "Water", "Internet", "Coffee", "Lunch", "Fuel",
+            "Train ticket", "Pharmacy", "Gym", "Cinema", "Books", "Gift", "Repair", "Insurance"
+    };
+
+    @Param({"1000000", "10000000"})
+    private int expenses;
+
+    @Param({"16", "100000"})
+    private int descriptions;
+
+    private ExpenseColumnStore store;
+
+    @Setup
+    public void setUp() {
+        List<Category> categories = BenchmarkData.categories(10);
+        Random random = new Random(42);
+        String[] names = new String[descriptions];
+        for (int i = 0; i < descriptions; i++) {
+            names[i] = i < DESCRIPTIONS.length ? DESCRIPTIONS[i] : "Card payment merchant " + i;
+        }
+        // With no transaction active the store is updated immediately
+        store = new ExpenseColumnStore(null, true);
+
+        // Loaded in chunks so setup never holds millions of entities at once
+        List<Expense> chunk = new ArrayList<>(CHUNK_SIZE);
+        for (int i = 1; i <= expenses; i++) {
+            Expense expense = new Expense(
+                    BigDecimal.valueOf(random.nextInt(100_000), 2),
+                    // Half of the expenses use the recurring descriptions
+                    names[random.nextBoolean() ? random.nextInt(Math.min(DESCRIPTIONS.length, descriptions))
+                            : random.nextInt(descriptions)],
+                    FIRST_DAY.plusDays(random.nextInt(DAYS)),
+                    categories.get(random.nextInt(categories.size())));
+            expense.setId((long) i);
+            chunk.add(expense);
+            if (chunk.size() == CHUNK_SIZE) {
+                store.putAll(chunk);
+                chunk.clear();
+            }
+        }
+        store.putAll(chunk);
+    }
+
+    @Benchmark
+    public List<CategoryTotalDTO> monthByCategory() {
+        return store.sumByCategory(BenchmarkData.TENANT, LocalDate.of(2024, 12, 1), LocalDate.of(2025, 1, 1));
+    }
+
+    @Benchmark
+    public List<CategoryTotalDTO> tenYearsByCategory() {
+        return store.sumByCategory(BenchmarkData.TENANT, FIRST_DAY, FIRST_DAY.plusDays(DAYS));
+    }
+
+    @Benchmark
+    public List<DailyTotalDTO> yearByDay() {
+        return store.sumByDay(BenchmarkData.TENANT, LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1), null);
+    }
+
+    @Benchmark
+    public List<DescriptionTotalDTO> monthTopDescriptions() {
+        return store.topDescriptions(BenchmarkData.TENANT, LocalDate.of(2024, 12, 1), LocalDate.of(2025, 1, 1), 10);
+    }
+
+    @Benchmark
+    public List<DescriptionTotalDTO> yearTopDescriptions() {
+        return store.topDescriptions(BenchmarkData.TENANT, LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1), 10);
+    }
+}
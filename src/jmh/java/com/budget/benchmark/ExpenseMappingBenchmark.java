@@ -0,0 +1,44 @@
+package com.budget.benchmark;
+
+import com.budget.dto.ExpenseDTO;
+import com.budget.model.Expense;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures ExpenseDTO.from, the mapping behind every expense response, over a month
+ * of expenses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpenseMappingBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int expenses;
+
+    private List<Expense> expenseList;
+
+    @Setup
+    public void setUp() {
+        expenseList = BenchmarkData.expenses(expenses, BenchmarkData.categories(10));
+    }
+
+    @Benchmark
+    public void toDTO(Blackhole blackhole) {
+        for (Expense expense : expenseList) {
+            blackhole.consume(ExpenseDTO.from(expense));
+        }
+    }
+
+    @Benchmark
+    public List<ExpenseDTO> toDTOList() {
+        return expenseList.stream().map(ExpenseDTO::from).toList();
+    }
+}
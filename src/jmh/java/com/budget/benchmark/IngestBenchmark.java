@@ -0,0 +1,75 @@
+package com.budget.benchmark;
+
+import com.budget.model.Category;
+import com.budget.model.Expense;
+import com.budget.repository.CategoryRepository;
+import com.budget.service.ExpenseIngestService;
+import com.budget.service.ExpenseService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * Measures single-expense creation from 32 concurrent callers, the load group commit
+ * is meant for, with each create in its own transaction and with creates grouped by
+ * ExpenseIngestService. The database is a file, so every commit writes to disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class IngestBenchmark {
+
+    @Param({"false", "true"})
+    private boolean groupCommit;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private ExpenseService expenseService;
+    private ExpenseIngestService expenseIngestService;
+    private Category category;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("ingest-benchmark");
+        context = BenchmarkApplication.start(
+                "spring.datasource.url=jdbc:h2:file:" + directory.resolve("budget"),
+                "budget.ingest.enabled=" + groupCommit,
+                "budget.columnar.enabled=false");
+        expenseService = context.getBean(ExpenseService.class);
+        expenseIngestService = context.getBean(ExpenseIngestService.class);
+        category = new Category("Card payments", "#3b82f6", null, null);
+        category.setTenantId(BenchmarkData.TENANT);
+        category = context.getBean(CategoryRepository.class).save(category);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * The path behind POST /api/expenses, with or without budget.ingest.enabled.
+     */
+    @Benchmark
+    public Expense create() throws TimeoutException {
+        Expense expense = new Expense(new BigDecimal("12.34"), "Card payment",
+                BenchmarkData.MONTH.atDay(1), category);
+        return groupCommit ? expenseIngestService.create(expense) : expenseService.create(expense);
+    }
+}
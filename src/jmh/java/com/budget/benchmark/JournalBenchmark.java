@@ -0,0 +1,98 @@
+package com.budget.benchmark;
+
+import com.budget.benchmark.journal.JournalCategoryRepository;
+import com.budget.benchmark.journal.JournalExpenseRepository;
+import com.budget.benchmark.journal.JournalStore;
+import com.budget.dto.CategoryTotalDTO;
+import com.budget.dto.ExpenseDTO;
+import com.budget.model.Category;
+import com.budget.model.Expense;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the journal store on the same datasets and month queries as
+ * {@link RepositoryBenchmark}, plus single inserts, with and without forcing each
+ * insert to disk. Compare with RepositoryBenchmark.createExpense for the H2 insert path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JournalBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int expenses;
+
+    @Param({"10", "500"})
+    private int categories;
+
+    @Param({"true", "false"})
+    private boolean sync;
+
+    private Path directory;
+    private JournalStore store;
+    private JournalExpenseRepository expenseRepository;
+    private Category insertCategory;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("journal-benchmark");
+        store = JournalStore.open(directory.resolve("budget.journal"), sync, Integer.MAX_VALUE);
+        JournalCategoryRepository categoryRepository = new JournalCategoryRepository(store);
+        expenseRepository = new JournalExpenseRepository(store);
+
+        List<Category> categoryList = BenchmarkData.categories(categories);
+        categoryList.forEach(categoryRepository::save);
+        expenseRepository.saveAll(BenchmarkData.expenses(expenses, categoryList));
+        store.flush();
+        insertCategory = categoryList.get(0);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public List<Expense> findByMonth() {
+        return expenseRepository.findByMonth(
+                BenchmarkData.TENANT, BenchmarkData.MONTH.getYear(), BenchmarkData.MONTH.getMonthValue());
+    }
+
+    @Benchmark
+    public List<ExpenseDTO> findDTOsByMonth() {
+        return expenseRepository.findDTOsByMonth(
+                BenchmarkData.TENANT, BenchmarkData.MONTH.getYear(), BenchmarkData.MONTH.getMonthValue());
+    }
+
+    @Benchmark
+    public List<CategoryTotalDTO> sumByCategoryForMonth() {
+        return expenseRepository.sumByCategoryForMonth(
+                BenchmarkData.TENANT, BenchmarkData.MONTH.getYear(), BenchmarkData.MONTH.getMonthValue());
+    }
+
+    /**
+     * Appends one expense, in the month after the queried one so the queries are unaffected.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Expense insert() {
+        return expenseRepository.save(new Expense(new BigDecimal("12.34"), "Inserted",
+                BenchmarkData.MONTH.plusMonths(1).atDay(1), insertCategory));
+    }
+}
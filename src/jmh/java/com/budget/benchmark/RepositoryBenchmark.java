@@ -0,0 +1,165 @@
+package com.budget.benchmark;
+
+import com.budget.dto.CategoryTotalDTO;
+import com.budget.dto.ExpenseDTO;
+import com.budget.model.Category;
+import com.budget.model.CategoryMonthTotal;
+import com.budget.model.Expense;
+import com.budget.repository.CategoryMonthTotalRepository;
+import com.budget.repository.ExpenseRepository;
+import com.budget.service.ExpenseQueryService;
+import com.budget.service.ExpenseService;
+import com.budget.service.RollupService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures month queries against a seeded in-memory H2 database: loading entities,
+ * loading DTO projections, grouping in SQL and reading the monthly rollup. Run with
+ * {@code -prof gc} to compare allocation per list request ({@code gc.alloc.rate.norm})
+ * between read-write and read-only transactions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int expenses;
+
+    @Param({"10", "500"})
+    private int categories;
+
+    private ConfigurableApplicationContext context;
+    private ExpenseRepository expenseRepository;
+    private CategoryMonthTotalRepository categoryMonthTotalRepository;
+    private ExpenseQueryService expenseQueryService;
+    private ExpenseService expenseService;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTransactionTemplate;
+    private Category insertCategory;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        expenseRepository = context.getBean(ExpenseRepository.class);
+        categoryMonthTotalRepository = context.getBean(CategoryMonthTotalRepository.class);
+        expenseQueryService = context.getBean(ExpenseQueryService.class);
+        expenseService = context.getBean(ExpenseService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        readOnlyTransactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransactionTemplate.setReadOnly(true);
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(RollupService.class).rebuild();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Loads the month's entities in a read-write transaction, through a query without
+     * the read-only hint, so Hibernate snapshots every entity for dirty checking.
+     */
+    @Benchmark
+    public List<ExpenseDTO> findByMonthEntities() {
+        return transactionTemplate.execute(status -> toDTOs(expenseRepository.findByTenantIdAndDateBetweenOrderByDateDesc(
+                BenchmarkData.TENANT, BenchmarkData.monthStart(), BenchmarkData.MONTH.atEndOfMonth())));
+    }
+
+    /**
+     * Loads the same entities in a read-only transaction through the read-only hinted query.
+     */
+    @Benchmark
+    public List<ExpenseDTO> findByMonthEntitiesReadOnly() {
+        return readOnlyTransactionTemplate.execute(status -> toDTOs(expenseRepository.findByMonth(
+                BenchmarkData.TENANT, BenchmarkData.MONTH.getYear(), BenchmarkData.MONTH.getMonthValue())));
+    }
+
+    @Benchmark
+    public List<ExpenseDTO> findDTOsByMonth() {
+        return expenseRepository.findDTOsByMonth(
+                BenchmarkData.TENANT, BenchmarkData.MONTH.getYear(), BenchmarkData.MONTH.getMonthValue());
+    }
+
+    /**
+     * The path behind GET /api/expenses?year=&month=.
+     */
+    @Benchmark
+    public List<ExpenseDTO> listMonth() {
+        return expenseQueryService.findByMonth(BenchmarkData.MONTH);
+    }
+
+    @Benchmark
+    public List<CategoryTotalDTO> sumByCategoryForMonth() {
+        return expenseRepository.sumByCategoryForMonth(
+                BenchmarkData.TENANT, BenchmarkData.MONTH.getYear(), BenchmarkData.MONTH.getMonthValue());
+    }
+
+    @Benchmark
+    public List<CategoryMonthTotal> rollupForMonth() {
+        return categoryMonthTotalRepository.findByTenantIdAndMonthStart(BenchmarkData.TENANT, BenchmarkData.monthStart());
+    }
+
+    /**
+     * The path behind POST /api/expenses: one transaction with the rollup update. The
+     * expense falls in the month after the queried one so the queries are unaffected.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Expense createExpense() {
+        return expenseService.create(new Expense(new BigDecimal("12.34"), "Inserted",
+                BenchmarkData.MONTH.plusMonths(1).atDay(1), insertCategory));
+    }
+
+    private static List<ExpenseDTO> toDTOs(List<Expense> expenses) {
+        return expenses.stream()
+                .map(ExpenseDTO::from)
+                .toList();
+    }
+
+    /**
+     * Inserts the dataset with plain JDBC batches; going through JPA would make setup
+     * for the larger sizes take longer than the benchmark itself.
+     */
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Category> categoryList = BenchmarkData.categories(categories);
+        insertCategory = categoryList.get(0);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO categories (id, tenant_id, name, monthly_limit, color, description) VALUES (?, ?, ?, ?, ?, ?)",
+                categoryList, categoryList.size(), (ps, category) -> {
+                    ps.setLong(1, category.getId());
+                    ps.setLong(2, category.getTenantId());
+                    ps.setString(3, category.getName());
+                    ps.setBigDecimal(4, category.getMonthlyLimit());
+                    ps.setString(5, category.getColor());
+                    ps.setString(6, category.getDescription());
+                });
+
+        List<Expense> expenseList = BenchmarkData.expenses(expenses, categoryList);
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO expenses (id, tenant_id, amount, description, date, category_id) VALUES (?, ?, ?, ?, ?, ?)",
+                expenseList, INSERT_BATCH_SIZE, (ps, expense) -> {
+                    ps.setLong(1, expense.getId());
+                    ps.setLong(2, expense.getTenantId());
+                    ps.setBigDecimal(3, expense.getAmount());
+                    ps.setString(4, expense.getDescription());
+                    ps.setDate(5, Date.valueOf(expense.getDate()));
+                    ps.setLong(6, expense.getCategory().getId());
+                });
+    }
+}
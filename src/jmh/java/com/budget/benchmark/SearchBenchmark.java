@@ -0,0 +1,62 @@
+package com.budget.benchmark;
+
+import com.budget.config.TenantContext;
+import com.budget.model.Expense;
+import com.budget.service.ExpenseSearchService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures description search against the in-memory index: a selective exact word,
+ * a broad prefix, and a multi-word query with a category filter, each as the tenant
+ * that owns the generated expenses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final String[] WORDS = {
+            "grocery", "groceries", "rent", "rental", "coffee", "lunch", "dinner", "fuel", "train",
+            "ticket", "pharmacy", "gym", "movie", "books", "gift", "repair", "insurance", "phone"
+    };
+
+    @Param({"1000", "100000", "1000000"})
+    private int expenses;
+
+    private ExpenseSearchService searchService;
+
+    @Setup
+    public void setUp() {
+        List<Expense> expenseList = BenchmarkData.expenses(expenses, BenchmarkData.categories(10));
+        Random random = new Random(7);
+        for (Expense expense : expenseList) {
+            expense.setDescription(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + random.nextInt(1000));
+        }
+        // With no transaction active the index is updated immediately
+        searchService = new ExpenseSearchService(null);
+        searchService.indexAll(expenseList);
+    }
+
+    @Benchmark
+    public List<Long> exactWord() {
+        return TenantContext.callAs(BenchmarkData.TENANT, () -> searchService.search("pharmacy", null, null, null, 50));
+    }
+
+    @Benchmark
+    public List<Long> broadPrefix() {
+        return TenantContext.callAs(BenchmarkData.TENANT, () -> searchService.search("g", null, null, null, 50));
+    }
+
+    @Benchmark
+    public List<Long> twoWordsInCategory() {
+        return TenantContext.callAs(BenchmarkData.TENANT, () -> searchService.search("groc lunch", 3L, null, null, 50));
+    }
+}
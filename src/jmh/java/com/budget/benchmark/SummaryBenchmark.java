@@ -0,0 +1,73 @@
+package com.budget.benchmark;
+
+import com.budget.dto.MonthlySummaryDTO;
+import com.budget.model.Category;
+import com.budget.model.Expense;
+import com.budget.service.SummaryService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the in-memory part of building a monthly summary: grouping a month's
+ * expenses by category and turning the totals into a MonthlySummaryDTO.
+ * perCategoryScan is the original O(categories x expenses) approach, kept as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SummaryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int expenses;
+
+    @Param({"10", "500"})
+    private int categories;
+
+    private List<Category> categoryList;
+    private List<Expense> expenseList;
+    private Map<Long, BigDecimal> spentByCategory;
+    private SummaryService summaryService;
+
+    @Setup
+    public void setUp() {
+        categoryList = BenchmarkData.categories(categories);
+        expenseList = BenchmarkData.expenses(expenses, categoryList);
+        spentByCategory = singlePassGrouping();
+        summaryService = new SummaryService(null, null, new ConcurrentMapCacheManager(), null, false);
+    }
+
+    @Benchmark
+    public Map<Long, BigDecimal> perCategoryScan() {
+        Map<Long, BigDecimal> totals = new HashMap<>();
+        for (Category category : categoryList) {
+            totals.put(category.getId(), expenseList.stream()
+                    .filter(e -> e.getCategory().getId().equals(category.getId()))
+                    .map(Expense::getAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add));
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public Map<Long, BigDecimal> singlePassGrouping() {
+        Map<Long, BigDecimal> totals = new HashMap<>();
+        for (Expense expense : expenseList) {
+            totals.merge(expense.getCategory().getId(), expense.getAmount(), BigDecimal::add);
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public MonthlySummaryDTO summarize() {
+        return summaryService.summarize(BenchmarkData.MONTH, categoryList, spentByCategory);
+    }
+}
@@ -0,0 +1,213 @@
+package com.budget.benchmark.journal;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * An append-only file of checksummed records, written through a memory mapping.
+ * <p>
+ * The file starts with a 16-byte header (magic, version). Each record is its body
+ * length and the CRC-32C of its body, both 4-byte ints, followed by the body. The
+ * mapping extends past the last record, and the unused part of the file is zero, so a
+ * zero length marks the end. On open, records are replayed in order up to the first
+ * one that is cut short or fails its checksum, which is what a crash in the middle
+ * of an append leaves behind; that record and anything after it are discarded.
+ * <p>
+ * Not thread-safe. A single mapping limits the file to 2 GB.
+ */
+final class Journal implements AutoCloseable {
+
+    private static final int MAGIC = 0x424A4E4C; // "BJNL"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 16;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MIN_CAPACITY = 1 << 20;
+
+    private Path path;
+    private final FileChannel channel;
+    private final CRC32C crc = new CRC32C();
+    private MappedByteBuffer buffer;
+    private ByteBuffer scratch = ByteBuffer.allocate(256);
+    private int end;
+    private long discardedBytes;
+
+    private Journal(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a journal, creating it if it does not exist, and passes the body of every
+     * intact record to the handler in the order they were appended. Bodies are read-only
+     * views that are only valid during the call.
+     * @throws IOException if the file is not a journal or cannot be mapped
+     */
+    static Journal open(Path path, Consumer<ByteBuffer> handler) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Journal journal = new Journal(path, channel);
+        try {
+            journal.load(handler);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return journal;
+    }
+
+    private void load(Consumer<ByteBuffer> handler) throws IOException {
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException(path + " is larger than a journal can be");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, MIN_CAPACITY));
+        if (size < FILE_HEADER_SIZE) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            end = FILE_HEADER_SIZE;
+            buffer.force();
+            return;
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException(path + " is not a journal");
+        }
+
+        end = FILE_HEADER_SIZE;
+        while (end + RECORD_HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(end);
+            if (length == 0) {
+                return;
+            }
+            if (length < 0 || length > buffer.capacity() - end - RECORD_HEADER_SIZE
+                    || checksum(end + RECORD_HEADER_SIZE, length) != buffer.getInt(end + 4)) {
+                break;
+            }
+            handler.accept(buffer.slice(end + RECORD_HEADER_SIZE, length).asReadOnlyBuffer());
+            end += RECORD_HEADER_SIZE + length;
+        }
+
+        // A torn record: zero it so appends never leave stale bytes behind the last record
+        int lastNonZero = end - 1;
+        for (int i = end; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                lastNonZero = i;
+                buffer.put(i, (byte) 0);
+            }
+        }
+        discardedBytes = lastNonZero + 1 - end;
+        buffer.force();
+    }
+
+    /**
+     * Appends one record, whose body the writer puts into the given buffer. The record
+     * is in the page cache once this returns, and durable after {@link #force()}.
+     */
+    void append(Consumer<ByteBuffer> writer) throws IOException {
+        scratch.clear();
+        while (true) {
+            try {
+                writer.accept(scratch);
+                break;
+            } catch (BufferOverflowException e) {
+                scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+            }
+        }
+        scratch.flip();
+        int length = scratch.remaining();
+        ensureCapacity(RECORD_HEADER_SIZE + length);
+
+        crc.reset();
+        crc.update(scratch.duplicate());
+        buffer.put(end + RECORD_HEADER_SIZE, scratch, 0, length);
+        buffer.putInt(end + 4, (int) crc.getValue());
+        buffer.putInt(end, length);
+        end += RECORD_HEADER_SIZE + length;
+    }
+
+    /**
+     * Writes appended records through to the storage device.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Returns the number of bytes used by the header and records.
+     */
+    int size() {
+        return end;
+    }
+
+    /**
+     * Returns how many bytes of torn or corrupt records were discarded when the journal was opened.
+     */
+    long discardedBytes() {
+        return discardedBytes;
+    }
+
+    /**
+     * Writes a new journal next to this one with only the records the writer appends,
+     * then moves it over this one and closes this journal. The new journal stays open
+     * across the move, so the handle is swapped only once it is in place. If writing or
+     * moving fails, the new file is deleted and this journal is left open and unchanged.
+     * @return the new journal, open for appending
+     */
+    Journal rewrite(JournalWriter writer) throws IOException {
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        Files.deleteIfExists(compacted);
+        Journal next = open(compacted, body -> {});
+        try {
+            writer.writeTo(next);
+            next.force();
+            Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            next.channel.close();
+            Files.deleteIfExists(compacted);
+            throw e;
+        }
+        next.path = path;
+        channel.close();
+        return next;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if ((long) end + bytes <= buffer.capacity()) {
+            return;
+        }
+        long capacity = Math.min(Math.max((long) buffer.capacity() * 2, (long) end + bytes), Integer.MAX_VALUE);
+        if (end + (long) bytes > capacity) {
+            throw new IOException(path + " is full; compact it before appending more");
+        }
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private int checksum(int offset, int length) {
+        crc.reset();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Appends records to a journal that is being rewritten.
+     */
+    @FunctionalInterface
+    interface JournalWriter {
+        void writeTo(Journal journal) throws IOException;
+    }
+}
@@ -0,0 +1,118 @@
+package com.budget.benchmark.journal;
+
+import com.budget.benchmark.journal.JournalStore.CategoryRow;
+import com.budget.config.TenantContext;
+import com.budget.model.Category;
+import com.budget.repository.CategoryRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The {@link CategoryRepository} operations on a {@link JournalStore}. Returned
+ * categories are new objects on every call; changing one has no effect until it is saved.
+ * Constraint violations are reported with the same exception Spring Data reports for
+ * the database constraints.
+ */
+public class JournalCategoryRepository {
+
+    private final JournalStore store;
+
+    public JournalCategoryRepository(JournalStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Inserts a category without an ID, assigning one and the current tenant if it has
+     * none, or replaces the category with its ID.
+     * @throws DataIntegrityViolationException if its tenant already has a category with the same name
+     */
+    public Category save(Category category) {
+        return store.write(() -> {
+            long tenantId = category.getTenantId() != null ? category.getTenantId() : TenantContext.current();
+            boolean duplicate = store.categories.values().stream()
+                    .anyMatch(row -> row.tenantId() == tenantId && row.name().equals(category.getName())
+                            && !Long.valueOf(row.id()).equals(category.getId()));
+            if (duplicate) {
+                throw new DataIntegrityViolationException("Category name already exists: " + category.getName());
+            }
+            long id = category.getId() != null ? category.getId() : store.nextCategoryId();
+            store.putCategory(new CategoryRow(id, tenantId, category.getName(), category.getColor(),
+                    category.getMonthlyLimit(), category.getDescription()));
+            category.setId(id);
+            category.setTenantId(tenantId);
+            return category;
+        });
+    }
+
+    public Optional<Category> findById(Long id) {
+        return store.read(() -> Optional.ofNullable(store.categories.get(id)).map(JournalCategoryRepository::toEntity));
+    }
+
+    public Optional<Category> findByIdAndTenantId(Long id, Long tenantId) {
+        return store.read(() -> Optional.ofNullable(store.categories.get(id))
+                .filter(row -> row.tenantId() == tenantId)
+                .map(JournalCategoryRepository::toEntity));
+    }
+
+    public List<Category> findByTenantIdOrderByIdAsc(Long tenantId) {
+        return store.read(() -> store.categories.values().stream()
+                .filter(row -> row.tenantId() == tenantId)
+                .map(JournalCategoryRepository::toEntity)
+                .toList());
+    }
+
+    public List<Category> findByTenantIdAndIdIn(Long tenantId, Collection<Long> ids) {
+        return store.read(() -> ids.stream()
+                .distinct()
+                .map(store.categories::get)
+                .filter(row -> row != null && row.tenantId() == tenantId)
+                .map(JournalCategoryRepository::toEntity)
+                .toList());
+    }
+
+    public Optional<Category> findByTenantIdAndName(Long tenantId, String name) {
+        return store.read(() -> store.categories.values().stream()
+                .filter(row -> row.tenantId() == tenantId && row.name().equals(name))
+                .findFirst()
+                .map(JournalCategoryRepository::toEntity));
+    }
+
+    public boolean existsByTenantIdAndName(Long tenantId, String name) {
+        return findByTenantIdAndName(tenantId, name).isPresent();
+    }
+
+    public boolean existsByIdAndTenantId(Long id, Long tenantId) {
+        return findByIdAndTenantId(id, tenantId).isPresent();
+    }
+
+    public long count() {
+        return store.read(() -> (long) store.categories.size());
+    }
+
+    /**
+     * Deletes a category by ID; does nothing if there is none.
+     * @throws DataIntegrityViolationException if expenses still reference the category
+     */
+    public void deleteById(Long id) {
+        store.write(() -> {
+            if (!store.categories.containsKey(id)) {
+                return null;
+            }
+            if (store.expenseCounts.getOrDefault(id, 0) > 0) {
+                throw new DataIntegrityViolationException("Category " + id + " still has expenses");
+            }
+            store.deleteCategory(id);
+            return null;
+        });
+    }
+
+    static Category toEntity(CategoryRow row) {
+        Category category = new Category(row.name(), row.color(), row.monthlyLimit(), row.description());
+        category.setId(row.id());
+        category.setTenantId(row.tenantId());
+        return category;
+    }
+}
@@ -0,0 +1,239 @@
+package com.budget.benchmark.journal;
+
+import com.budget.benchmark.journal.JournalStore.CategoryRow;
+import com.budget.benchmark.journal.JournalStore.ExpenseRow;
+import com.budget.dto.CategoryTotalDTO;
+import com.budget.dto.ExpenseDTO;
+import com.budget.model.Category;
+import com.budget.model.Expense;
+import com.budget.model.Money;
+import com.budget.repository.ExpenseRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+
+/**
+ * The {@link ExpenseRepository} operations on a {@link JournalStore}, with the same
+ * tenant parameters and half-open date ranges. A month is read as one range of the
+ * tenant's date index, already in the order the endpoints return it. Returned expenses
+ * are new objects on every call, each with its category; changing one has no effect
+ * until it is saved.
+ */
+public class JournalExpenseRepository {
+
+    private final JournalStore store;
+
+    public JournalExpenseRepository(JournalStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Inserts an expense without an ID, assigning one, or replaces the expense with its ID.
+     * The expense takes the tenant of its category.
+     * @throws DataIntegrityViolationException if its category does not exist
+     */
+    public Expense save(Expense expense) {
+        return store.write(() -> put(expense));
+    }
+
+    /**
+     * Saves several expenses under one lock and, with sync enabled, one write to disk.
+     * Unlike a transaction, expenses saved before one that fails stay saved.
+     */
+    public List<Expense> saveAll(Iterable<Expense> expenses) {
+        return store.write(() -> {
+            List<Expense> saved = new ArrayList<>();
+            expenses.forEach(expense -> saved.add(put(expense)));
+            return saved;
+        });
+    }
+
+    public Optional<Expense> findById(Long id) {
+        return store.read(() -> Optional.ofNullable(store.expenses.get(id)).map(this::toEntity));
+    }
+
+    public Optional<Expense> findByIdAndTenantId(Long id, Long tenantId) {
+        return store.read(() -> Optional.ofNullable(store.expenses.get(id))
+                .filter(row -> row.tenantId() == tenantId)
+                .map(this::toEntity));
+    }
+
+    public Optional<Expense> findWithCategoryById(Long tenantId, Long id) {
+        return findByIdAndTenantId(id, tenantId);
+    }
+
+    public Optional<ExpenseDTO> findDTOById(Long tenantId, Long id) {
+        return store.read(() -> Optional.ofNullable(store.expenses.get(id))
+                .filter(row -> row.tenantId() == tenantId)
+                .map(this::toDTO));
+    }
+
+    /**
+     * Returns a tenant's expenses from start to end, both inclusive, newest first.
+     */
+    public List<Expense> findByTenantIdAndDateBetweenOrderByDateDesc(Long tenantId, LocalDate startDate,
+                                                                     LocalDate endDate) {
+        return findByDateRange(tenantId, startDate, endDate.plusDays(1));
+    }
+
+    /**
+     * Returns a tenant's expenses from start, inclusive, to end, exclusive, newest first.
+     */
+    public List<Expense> findByDateRange(Long tenantId, LocalDate start, LocalDate end) {
+        return store.read(() -> {
+            // Expenses of the same category share one Category, as in a persistence context
+            Map<Long, Category> categories = new HashMap<>();
+            return range(tenantId, start, end).stream()
+                    .map(row -> toEntity(row, categories))
+                    .toList();
+        });
+    }
+
+    public List<ExpenseDTO> findDTOsByDateRange(Long tenantId, LocalDate start, LocalDate end) {
+        return store.read(() -> range(tenantId, start, end).stream()
+                .map(this::toDTO)
+                .toList());
+    }
+
+    /**
+     * Sums expense amounts per category over a date range. Categories without expenses
+     * in the range are not returned.
+     */
+    public List<CategoryTotalDTO> sumByCategoryForDateRange(Long tenantId, LocalDate start, LocalDate end) {
+        return store.read(() -> {
+            Map<Long, Money> totals = new LinkedHashMap<>();
+            for (ExpenseRow row : range(tenantId, start, end)) {
+                totals.merge(row.categoryId(), Money.of(row.amount()), Money::plus);
+            }
+            return totals.entrySet().stream()
+                    .map(total -> new CategoryTotalDTO(total.getKey(), total.getValue().toBigDecimal()))
+                    .toList();
+        });
+    }
+
+    public List<Expense> findByMonth(Long tenantId, int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return findByDateRange(tenantId, yearMonth.atDay(1), yearMonth.plusMonths(1).atDay(1));
+    }
+
+    public List<ExpenseDTO> findDTOsByMonth(Long tenantId, int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return findDTOsByDateRange(tenantId, yearMonth.atDay(1), yearMonth.plusMonths(1).atDay(1));
+    }
+
+    public List<CategoryTotalDTO> sumByCategoryForMonth(Long tenantId, int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return sumByCategoryForDateRange(tenantId, yearMonth.atDay(1), yearMonth.plusMonths(1).atDay(1));
+    }
+
+    public boolean existsByCategoryId(Long categoryId) {
+        return store.read(() -> store.expenseCounts.getOrDefault(categoryId, 0) > 0);
+    }
+
+    public long count() {
+        return store.read(() -> (long) store.expenses.size());
+    }
+
+    /**
+     * Deletes an expense by ID; does nothing if there is none.
+     */
+    public void deleteById(Long id) {
+        deleteAllByIdIn(List.of(id));
+    }
+
+    /**
+     * Deletes expenses by ID.
+     * @return the number of expenses deleted
+     */
+    public int deleteAllByIdIn(Collection<Long> ids) {
+        return store.write(() -> {
+            int deleted = 0;
+            for (Long id : ids) {
+                if (store.expenses.containsKey(id)) {
+                    store.deleteExpense(id);
+                    deleted++;
+                }
+            }
+            return deleted;
+        });
+    }
+
+    /**
+     * Moves every expense of one category to another.
+     * @return the number of expenses moved
+     */
+    public int moveToCategory(Long fromCategoryId, Category toCategory) {
+        return store.write(() -> {
+            CategoryRow target = category(toCategory.getId());
+            List<ExpenseRow> moved = store.expenses.values().stream()
+                    .filter(row -> row.categoryId() == fromCategoryId)
+                    .toList();
+            for (ExpenseRow row : moved) {
+                store.putExpense(new ExpenseRow(row.id(), target.tenantId(), target.id(), row.date(), row.amount(),
+                        row.description(), row.recurringExpenseId(), row.recurringOccurrence()));
+            }
+            return moved.size();
+        });
+    }
+
+    private Expense put(Expense expense) {
+        CategoryRow category = category(expense.getCategory().getId());
+        long id = expense.getId() != null ? expense.getId() : store.nextExpenseId();
+        store.putExpense(new ExpenseRow(id, category.tenantId(), category.id(), expense.getDate(),
+                expense.getAmount(), expense.getDescription(),
+                expense.getRecurringExpenseId(), expense.getRecurringOccurrence()));
+        expense.setId(id);
+        return expense;
+    }
+
+    private CategoryRow category(Long id) {
+        CategoryRow category = id != null ? store.categories.get(id) : null;
+        if (category == null) {
+            throw new DataIntegrityViolationException("Category not found: " + id);
+        }
+        return category;
+    }
+
+    /**
+     * Returns a tenant's expenses from start, inclusive, to end, exclusive, newest first.
+     */
+    private NavigableSet<ExpenseRow> range(Long tenantId, LocalDate start, LocalDate end) {
+        NavigableSet<ExpenseRow> expenses = store.expensesByTenant.get(tenantId);
+        if (expenses == null || !start.isBefore(end)) {
+            return Collections.emptyNavigableSet();
+        }
+        return expenses.subSet(ExpenseRow.bound(end.minusDays(1), Long.MAX_VALUE), true,
+                ExpenseRow.bound(start, Long.MIN_VALUE), true);
+    }
+
+    private Expense toEntity(ExpenseRow row) {
+        return toEntity(row, new HashMap<>());
+    }
+
+    private Expense toEntity(ExpenseRow row, Map<Long, Category> categories) {
+        Category category = categories.computeIfAbsent(row.categoryId(),
+                id -> JournalCategoryRepository.toEntity(store.categories.get(id)));
+        Expense expense = new Expense(row.amount(), row.description(), row.date(), category);
+        expense.setId(row.id());
+        if (row.recurringExpenseId() != null) {
+            expense.setRecurrence(row.recurringExpenseId(), row.recurringOccurrence());
+        }
+        return expense;
+    }
+
+    private ExpenseDTO toDTO(ExpenseRow row) {
+        CategoryRow category = store.categories.get(row.categoryId());
+        return new ExpenseDTO(row.id(), row.amount(), row.description(), row.date(),
+                category.id(), category.name(), category.color());
+    }
+}
@@ -0,0 +1,348 @@
+package com.budget.benchmark.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Categories and expenses kept in memory and persisted to an append-only {@link Journal}.
+ * Every change is appended as the full new row or a deletion marker, and the journal is
+ * replayed into the in-memory indexes when the store is opened. Expenses are indexed by
+ * ID and by tenant and date, so a month is a range of one sorted map.
+ * <p>
+ * Superseded and deleted rows stay in the journal until it is compacted, which rewrites
+ * it with only the live rows. {@link #compactIfWasteful()} does so once at least half of
+ * a journal past the minimum size is dead.
+ * <p>
+ * Reads run under a shared lock and writes under an exclusive one. With sync enabled,
+ * each write is forced to disk before it returns; otherwise writes are durable only
+ * after {@link #flush()}, compaction or close.
+ * <p>
+ * A prototype for comparing against the H2 repositories in JournalBenchmark; the
+ * application does not use it, since the services update the monthly rollup in the
+ * same database transaction as each expense.
+ */
+public class JournalStore implements AutoCloseable {
+
+    private static final byte CATEGORY = 1;
+    private static final byte CATEGORY_DELETED = 2;
+    private static final byte EXPENSE = 3;
+    private static final byte EXPENSE_DELETED = 4;
+    private static final byte SEQUENCES = 5;
+
+    private static final long FIRST_CATEGORY_ID = 100; // Matches the categories sequence
+    private static final long FIRST_EXPENSE_ID = 1;
+
+    /** Order of the per-tenant date index: date descending, then ID descending. */
+    static final Comparator<ExpenseRow> NEWEST_FIRST =
+            Comparator.comparing(ExpenseRow::date).thenComparingLong(ExpenseRow::id).reversed();
+
+    private final boolean sync;
+    private final int compactionMinBytes;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    final NavigableMap<Long, CategoryRow> categories = new TreeMap<>();
+    final Map<Long, ExpenseRow> expenses = new HashMap<>();
+    final Map<Long, NavigableSet<ExpenseRow>> expensesByTenant = new HashMap<>();
+    final Map<Long, Integer> expenseCounts = new HashMap<>();
+    private long nextCategoryId = FIRST_CATEGORY_ID;
+    private long nextExpenseId = FIRST_EXPENSE_ID;
+    private long records;
+    private Journal journal;
+
+    private JournalStore(boolean sync, int compactionMinBytes) {
+        this.sync = sync;
+        this.compactionMinBytes = compactionMinBytes;
+    }
+
+    /**
+     * Opens the journal at the given path, creating it if needed, and loads every row it holds.
+     * @param sync whether to force each write to disk before returning
+     * @param compactionMinBytes journal size below which compactIfWasteful does nothing
+     */
+    public static JournalStore open(Path path, boolean sync, int compactionMinBytes) throws IOException {
+        JournalStore store = new JournalStore(sync, compactionMinBytes);
+        store.journal = Journal.open(path, store::replay);
+        return store;
+    }
+
+    /**
+     * Returns how many bytes of torn or corrupt records were discarded when the store was opened.
+     */
+    public long discardedBytes() {
+        return read(() -> journal.discardedBytes());
+    }
+
+    /**
+     * Returns the number of bytes of the journal holding records.
+     */
+    int journalSize() {
+        return read(() -> journal.size());
+    }
+
+    /**
+     * Forces all writes so far to disk.
+     */
+    public void flush() {
+        write(() -> {
+            journal.force();
+            return null;
+        });
+    }
+
+    /**
+     * Rewrites the journal with only the live rows.
+     */
+    public void compact() {
+        write(() -> {
+            try {
+                journal = journal.rewrite(next -> {
+                    // Keeps IDs of deleted rows from being handed out again once their records are gone
+                    next.append(body -> body.put(SEQUENCES).putLong(nextCategoryId).putLong(nextExpenseId));
+                    for (CategoryRow category : categories.values()) {
+                        next.append(body -> writeCategory(body, category));
+                    }
+                    for (ExpenseRow expense : expenses.values()) {
+                        next.append(body -> writeExpense(body, expense));
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            records = categories.size() + expenses.size();
+            return null;
+        });
+    }
+
+    /**
+     * Compacts the journal if it is past the minimum size and at least half of its rows are dead.
+     * @return true if the journal was compacted
+     */
+    public boolean compactIfWasteful() {
+        boolean wasteful = read(() -> journal.size() >= compactionMinBytes
+                && records >= 2L * (categories.size() + expenses.size()));
+        if (wasteful) {
+            compact();
+        }
+        return wasteful;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            journal.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    <T> T write(Supplier<T> writer) {
+        lock.writeLock().lock();
+        try {
+            T result = writer.get();
+            if (sync) {
+                journal.force();
+            }
+            return result;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Mutations below must be called from within write()
+
+    long nextCategoryId() {
+        return nextCategoryId++;
+    }
+
+    long nextExpenseId() {
+        return nextExpenseId++;
+    }
+
+    void putCategory(CategoryRow category) {
+        append(body -> writeCategory(body, category));
+        applyCategory(category);
+    }
+
+    void deleteCategory(long id) {
+        append(body -> body.put(CATEGORY_DELETED).putLong(id));
+        categories.remove(id);
+    }
+
+    void putExpense(ExpenseRow expense) {
+        append(body -> writeExpense(body, expense));
+        applyExpense(expense);
+    }
+
+    void deleteExpense(long id) {
+        append(body -> body.put(EXPENSE_DELETED).putLong(id));
+        removeExpense(id);
+    }
+
+    private void append(Consumer<ByteBuffer> writer) {
+        try {
+            journal.append(writer);
+            records++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void replay(ByteBuffer body) {
+        byte type = body.get();
+        if (type == SEQUENCES) {
+            nextCategoryId = Math.max(nextCategoryId, body.getLong());
+            nextExpenseId = Math.max(nextExpenseId, body.getLong());
+            return;
+        }
+        records++;
+        switch (type) {
+            case CATEGORY -> applyCategory(readCategory(body));
+            case CATEGORY_DELETED -> categories.remove(body.getLong());
+            case EXPENSE -> applyExpense(readExpense(body));
+            case EXPENSE_DELETED -> removeExpense(body.getLong());
+            default -> throw new IllegalStateException("Unknown journal record type " + type);
+        }
+    }
+
+    private void applyCategory(CategoryRow category) {
+        categories.put(category.id(), category);
+        nextCategoryId = Math.max(nextCategoryId, category.id() + 1);
+    }
+
+    private void applyExpense(ExpenseRow expense) {
+        removeExpense(expense.id());
+        expenses.put(expense.id(), expense);
+        expensesByTenant.computeIfAbsent(expense.tenantId(), tenant -> new TreeSet<>(NEWEST_FIRST)).add(expense);
+        expenseCounts.merge(expense.categoryId(), 1, Integer::sum);
+        nextExpenseId = Math.max(nextExpenseId, expense.id() + 1);
+    }
+
+    private void removeExpense(long id) {
+        ExpenseRow previous = expenses.remove(id);
+        if (previous != null) {
+            expensesByTenant.get(previous.tenantId()).remove(previous);
+            expenseCounts.merge(previous.categoryId(), -1, Integer::sum);
+        }
+    }
+
+    private static void writeCategory(ByteBuffer body, CategoryRow category) {
+        body.put(CATEGORY).putLong(category.id()).putLong(category.tenantId());
+        putString(body, category.name());
+        putString(body, category.color());
+        putDecimal(body, category.monthlyLimit());
+        putString(body, category.description());
+    }
+
+    private static CategoryRow readCategory(ByteBuffer body) {
+        return new CategoryRow(body.getLong(), body.getLong(), getString(body), getString(body),
+                getDecimal(body), getString(body));
+    }
+
+    private static void writeExpense(ByteBuffer body, ExpenseRow expense) {
+        body.put(EXPENSE).putLong(expense.id()).putLong(expense.tenantId()).putLong(expense.categoryId())
+                .putLong(expense.date().toEpochDay());
+        putDecimal(body, expense.amount());
+        putString(body, expense.description());
+        body.put((byte) (expense.recurringExpenseId() != null ? 1 : 0));
+        if (expense.recurringExpenseId() != null) {
+            body.putLong(expense.recurringExpenseId()).putInt(expense.recurringOccurrence());
+        }
+    }
+
+    private static ExpenseRow readExpense(ByteBuffer body) {
+        long id = body.getLong();
+        long tenantId = body.getLong();
+        long categoryId = body.getLong();
+        LocalDate date = LocalDate.ofEpochDay(body.getLong());
+        BigDecimal amount = getDecimal(body);
+        String description = getString(body);
+        boolean recurring = body.get() != 0;
+        return new ExpenseRow(id, tenantId, categoryId, date, amount, description,
+                recurring ? body.getLong() : null, recurring ? body.getInt() : null);
+    }
+
+    private static void putString(ByteBuffer body, String value) {
+        if (value == null) {
+            body.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        body.putInt(bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer body) {
+        int length = body.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putDecimal(ByteBuffer body, BigDecimal value) {
+        if (value == null) {
+            body.putInt(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        body.putInt(unscaled.length).put(unscaled).putInt(value.scale());
+    }
+
+    private static BigDecimal getDecimal(ByteBuffer body) {
+        int length = body.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        body.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), body.getInt());
+    }
+
+    /**
+     * A category as stored in the journal.
+     */
+    record CategoryRow(long id, long tenantId, String name, String color, BigDecimal monthlyLimit,
+                       String description) {}
+
+    /**
+     * An expense as stored in the journal.
+     */
+    record ExpenseRow(long id, long tenantId, long categoryId, LocalDate date, BigDecimal amount,
+                      String description, Long recurringExpenseId, Integer recurringOccurrence) {
+
+        /**
+         * Returns a row that sorts with the expenses on a date, for bounding a range of the date index.
+         */
+        static ExpenseRow bound(LocalDate date, long id) {
+            return new ExpenseRow(id, 0, 0, date, null, null, null, null);
+        }
+    }
+}
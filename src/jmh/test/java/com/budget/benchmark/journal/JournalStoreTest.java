@@ -0,0 +1,247 @@
+package com.budget.benchmark.journal;
+
+import com.budget.dto.CategoryTotalDTO;
+import com.budget.dto.ExpenseDTO;
+import com.budget.model.Category;
+import com.budget.model.Expense;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for the journal store: reloading, recovery from torn and corrupt records,
+ * compaction, and the repository constraints.
+ */
+class JournalStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private Path path;
+    private JournalStore store;
+    private JournalCategoryRepository categoryRepository;
+    private JournalExpenseRepository expenseRepository;
+    private Category groceries;
+
+    @BeforeAll
+    static void beforeAll() {
+        System.out.println("=== Running JournalStoreTest ===");
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        path = directory.resolve("budget.journal");
+        open();
+        groceries = categoryRepository.save(new Category("Groceries", "#22c55e", new BigDecimal("500.00"), ""));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        store.close();
+    }
+
+    /**
+     * Tests that categories and expenses are read back from the journal after reopening,
+     * with months returned newest first and later IDs continuing the sequence.
+     */
+    @Test
+    void reopenReplaysJournal() throws IOException {
+        System.out.println("--- Now testing reloading the journal ---");
+
+        Expense first = expense("Market", "12.50", LocalDate.of(2024, 12, 3));
+        Expense second = expense("Bakery", "4.20", LocalDate.of(2024, 12, 18));
+        expense("Last year", "9.99", LocalDate.of(2023, 12, 18));
+        second.setAmount(new BigDecimal("4.80"));
+        expenseRepository.save(second);
+
+        reopen();
+
+        List<ExpenseDTO> december = expenseRepository.findDTOsByMonth(groceries.getTenantId(), 2024, 12);
+        assertThat(december).extracting(ExpenseDTO::id).containsExactly(second.getId(), first.getId());
+        assertThat(december.get(0).amount()).isEqualByComparingTo("4.80");
+        assertThat(december.get(0).categoryName()).isEqualTo("Groceries");
+        assertThat(expenseRepository.sumByCategoryForMonth(groceries.getTenantId(), 2024, 12))
+                .extracting(CategoryTotalDTO::spent)
+                .containsExactly(new BigDecimal("17.30"));
+        assertThat(categoryRepository.findByTenantIdAndName(groceries.getTenantId(), "Groceries")).isPresent();
+
+        Expense next = expense("Butcher", "20.00", LocalDate.of(2024, 12, 20));
+        assertThat(next.getId()).isGreaterThan(second.getId());
+    }
+
+    /**
+     * Tests that a journal cut off in the middle of a record, as a crash during an
+     * append leaves it, loads every complete record, drops the torn one, and accepts
+     * new records after them.
+     */
+    @Test
+    void recoversFromTruncatedRecord() throws IOException {
+        System.out.println("--- Now testing recovery from a journal truncated mid-record ---");
+
+        expense("Market", "12.50", LocalDate.of(2024, 12, 3));
+        expense("Bakery", "4.20", LocalDate.of(2024, 12, 18));
+        int complete = store.journalSize();
+        expense("Butcher", "20.00", LocalDate.of(2024, 12, 20));
+        int torn = complete + (store.journalSize() - complete) / 2;
+        store.close();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(torn);
+        }
+        open();
+
+        assertThat(store.discardedBytes()).isPositive();
+        assertThat(store.journalSize()).isEqualTo(complete);
+        assertThat(expenseRepository.findByMonth(groceries.getTenantId(), 2024, 12))
+                .extracting(Expense::getDescription)
+                .containsExactly("Bakery", "Market");
+
+        expense("Fishmonger", "15.00", LocalDate.of(2024, 12, 21));
+        reopen();
+
+        assertThat(store.discardedBytes()).isZero();
+        assertThat(expenseRepository.findByMonth(groceries.getTenantId(), 2024, 12))
+                .extracting(Expense::getDescription)
+                .containsExactly("Fishmonger", "Bakery", "Market");
+    }
+
+    /**
+     * Tests that a record whose bytes no longer match its checksum is discarded
+     * together with everything after it.
+     */
+    @Test
+    void discardsRecordWithBadChecksum() throws IOException {
+        System.out.println("--- Now testing recovery from a corrupt record ---");
+
+        expense("Market", "12.50", LocalDate.of(2024, 12, 3));
+        int intact = store.journalSize();
+        expense("Bakery", "4.20", LocalDate.of(2024, 12, 18));
+        expense("Butcher", "20.00", LocalDate.of(2024, 12, 20));
+        store.close();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer bytes = ByteBuffer.allocate(1);
+            long position = intact + 12;
+            channel.read(bytes, position);
+            bytes.put(0, (byte) (bytes.get(0) ^ 0xFF)).rewind();
+            channel.write(bytes, position);
+        }
+        open();
+
+        assertThat(expenseRepository.count()).isEqualTo(1);
+        assertThat(expenseRepository.findByMonth(groceries.getTenantId(), 2024, 12))
+                .extracting(Expense::getDescription)
+                .containsExactly("Market");
+    }
+
+    /**
+     * Tests that compaction drops superseded and deleted rows and keeps the live ones.
+     */
+    @Test
+    void compactionKeepsLiveRows() throws IOException {
+        System.out.println("--- Now testing journal compaction ---");
+
+        Expense kept = expense("Market", "0.01", LocalDate.of(2024, 12, 3));
+        for (int cents = 2; cents <= 200; cents++) {
+            kept.setAmount(BigDecimal.valueOf(cents, 2));
+            expenseRepository.save(kept);
+        }
+        Expense deleted = expense("Bakery", "4.20", LocalDate.of(2024, 12, 18));
+        expenseRepository.deleteById(deleted.getId());
+        int before = store.journalSize();
+
+        assertThat(store.compactIfWasteful()).isTrue();
+        assertThat(store.journalSize()).isLessThan(before / 10);
+
+        reopen();
+        assertThat(expenseRepository.findByMonth(groceries.getTenantId(), 2024, 12))
+                .singleElement()
+                .satisfies(expense -> {
+                    assertThat(expense.getId()).isEqualTo(kept.getId());
+                    assertThat(expense.getAmount()).isEqualByComparingTo("2.00");
+                });
+        assertThat(store.compactIfWasteful()).isFalse();
+    }
+
+    /**
+     * Tests that the IDs of deleted rows are not handed out again after compaction has
+     * dropped their records and the journal is reopened.
+     */
+    @Test
+    void compactionKeepsIdSequences() throws IOException {
+        System.out.println("--- Now testing ID sequences across compaction ---");
+
+        expense("Market", "12.50", LocalDate.of(2024, 12, 3));
+        Expense deleted = expense("Bakery", "4.20", LocalDate.of(2024, 12, 18));
+        expenseRepository.deleteById(deleted.getId());
+        Category removed = categoryRepository.save(new Category("Travel", "#3b82f6", null, null));
+        categoryRepository.deleteById(removed.getId());
+
+        store.compact();
+        reopen();
+
+        assertThat(expense("Butcher", "20.00", LocalDate.of(2024, 12, 20)).getId())
+                .isGreaterThan(deleted.getId());
+        assertThat(categoryRepository.save(new Category("Health", "#ef4444", null, null)).getId())
+                .isGreaterThan(removed.getId());
+    }
+
+    /**
+     * Tests that names are unique per tenant and that a category with expenses cannot
+     * be deleted, as the database constraints enforce.
+     */
+    @Test
+    void enforcesConstraints() {
+        System.out.println("--- Now testing journal repository constraints ---");
+
+        assertThatThrownBy(() -> categoryRepository.save(new Category("Groceries", "#000000", null, null)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        Category otherTenant = new Category("Groceries", "#000000", null, null);
+        otherTenant.setTenantId(2L);
+        categoryRepository.save(otherTenant);
+        assertThat(categoryRepository.findByTenantIdOrderByIdAsc(2L)).hasSize(1);
+        assertThat(expenseRepository.findByMonth(2L, 2024, 12)).isEmpty();
+
+        expense("Market", "12.50", LocalDate.of(2024, 12, 3));
+        assertThatThrownBy(() -> categoryRepository.deleteById(groceries.getId()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        Category missing = new Category("Missing", "#000000", null, null);
+        missing.setId(999L);
+        assertThatThrownBy(() -> expenseRepository.save(
+                new Expense(BigDecimal.ONE, "Orphan", LocalDate.of(2024, 12, 3), missing)))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private Expense expense(String description, String amount, LocalDate date) {
+        return expenseRepository.save(new Expense(new BigDecimal(amount), description, date, groceries));
+    }
+
+    private void open() throws IOException {
+        // A small minimum size so the tests can trigger compaction
+        store = JournalStore.open(path, true, 1024);
+        categoryRepository = new JournalCategoryRepository(store);
+        expenseRepository = new JournalExpenseRepository(store);
+    }
+
+    private void reopen() throws IOException {
+        store.close();
+        open();
+    }
+}
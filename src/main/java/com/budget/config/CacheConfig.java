@@ -0,0 +1,67 @@
+package com.budget.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caffeine caches for categories and monthly summaries. Sizes and expiry are set
+ * by spring.cache.caffeine.spec. Every entry is keyed by tenant as well as by its
+ * arguments, so each cache is partitioned per tenant and one tenant's writes only
+ * evict that tenant's entries. Keys also carry the tenant's generation: evicting a
+ * tenant moves it to the next generation, which takes one map update however many
+ * entries the caches hold, and leaves its old entries unreachable until the size and
+ * expiry limits drop them.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    /** Key generator that prefixes the method arguments with the current tenant. */
+    public static final String TENANT_KEY_GENERATOR = "tenantKeyGenerator";
+
+    /** All categories, as returned by CategoryService.findAll. */
+    public static final String CATEGORIES = "categories";
+
+    /** Single categories keyed by tenant and ID. */
+    public static final String CATEGORY = "category";
+
+    /** MonthlySummaryDTOs keyed by tenant and YearMonth. */
+    public static final String MONTHLY_SUMMARIES = "monthlySummaries";
+
+    /** Current generation of each tenant that has been evicted; other tenants are at 0. */
+    private static final Map<Long, AtomicLong> GENERATIONS = new ConcurrentHashMap<>();
+
+    @Bean(TENANT_KEY_GENERATOR)
+    public KeyGenerator tenantKeyGenerator() {
+        return (target, method, params) -> tenantKey(TenantContext.current(), params);
+    }
+
+    /**
+     * Returns the key the tenant key generator builds for the given tenant and arguments.
+     */
+    public static TenantKey tenantKey(long tenantId, Object... params) {
+        AtomicLong generation = GENERATIONS.get(tenantId);
+        return new TenantKey(tenantId, generation != null ? generation.get() : 0,
+                SimpleKeyGenerator.generateKey(params));
+    }
+
+    /**
+     * Invalidates every entry of one tenant in every tenant-keyed cache, immediately.
+     * Callers inside a transaction should defer this until it commits.
+     */
+    public static void evictTenant(long tenantId) {
+        GENERATIONS.computeIfAbsent(tenantId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Cache key of one tenant's entry.
+     */
+    public record TenantKey(long tenantId, long generation, Object key) {}
+}
@@ -0,0 +1,61 @@
+package com.budget.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Request-level metrics beyond what Actuator records on its own. Endpoint timers
+ * (http.server.requests), repository timers (spring.data.repository.invocations),
+ * Hibernate statistics and Hikari pool metrics are auto-configured; this adds the
+ * number of SQL statements each endpoint issues, as budget.http.queries.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final QueryCounter queryCounter = new QueryCounter();
+    private final MeterRegistry meterRegistry;
+
+    public MetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCounterInspector() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCounter);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                queryCounter.reset();
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                        Object handler, Exception ex) {
+                Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                DistributionSummary.builder("budget.http.queries")
+                        .description("SQL statements issued per request")
+                        .baseUnit("statements")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri != null ? uri.toString() : "UNKNOWN")
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(queryCounter.get());
+            }
+        }).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,30 @@
+package com.budget.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, so each
+ * request can report how many queries it issued. Statements run on other threads,
+ * such as concurrent summary lookups, are not attributed to the request.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private final ThreadLocal<int[]> count = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        count.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Returns the number of statements prepared on this thread since the last reset.
+     */
+    public int get() {
+        return count.get()[0];
+    }
+
+    public void reset() {
+        count.get()[0] = 0;
+    }
+}
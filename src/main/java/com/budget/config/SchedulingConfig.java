@@ -0,0 +1,12 @@
+package com.budget.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} jobs, such as posting due recurring expenses.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
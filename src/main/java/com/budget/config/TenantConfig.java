@@ -0,0 +1,66 @@
+package com.budget.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Resolves the tenant of each API request from the X-Tenant-Id header, defaulting to
+ * {@link TenantContext#DEFAULT_TENANT}. A header that is not a positive number is
+ * rejected with 400. The header is trusted as-is; authenticating callers is left to
+ * whatever fronts the application. When the request ends, the thread gets back
+ * whatever tenant it had before, which on a container thread is none.
+ */
+@Configuration
+public class TenantConfig implements WebMvcConfigurer {
+
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+
+    // Request attribute holding the tenant the thread had before the request, if any
+    private static final String PREVIOUS_TENANT = TenantConfig.class.getName() + ".previousTenant";
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AsyncHandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                String header = request.getHeader(TENANT_HEADER);
+                if (header == null) {
+                    bind(request, TenantContext.DEFAULT_TENANT);
+                    return true;
+                }
+                try {
+                    long tenantId = Long.parseLong(header.trim());
+                    if (tenantId > 0) {
+                        bind(request, tenantId);
+                        return true;
+                    }
+                } catch (NumberFormatException e) {
+                    // Rejected below
+                }
+                response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                return false;
+            }
+
+            @Override
+            public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                                       Object handler) {
+                TenantContext.restore((Long) request.getAttribute(PREVIOUS_TENANT));
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                        Object handler, Exception ex) {
+                TenantContext.restore((Long) request.getAttribute(PREVIOUS_TENANT));
+            }
+        }).addPathPatterns("/api/**");
+    }
+
+    private static void bind(HttpServletRequest request, long tenantId) {
+        request.setAttribute(PREVIOUS_TENANT, TenantContext.bound());
+        TenantContext.set(tenantId);
+    }
+}
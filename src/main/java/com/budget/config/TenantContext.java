@@ -0,0 +1,97 @@
+package com.budget.config;
+
+import java.util.function.Supplier;
+
+/**
+ * The tenant (household account) the current thread is working for. Requests set it
+ * from the X-Tenant-Id header; work handed to another thread must capture it with
+ * {@link #wrap} or run under {@link #callAs}. Asking for the tenant of a thread that
+ * has none is an error rather than a fallback to {@link #DEFAULT_TENANT}, so a
+ * background task that forgets to bind one fails instead of acting for that tenant.
+ */
+public final class TenantContext {
+
+    /** Tenant of requests without an X-Tenant-Id header, and owner of the seeded categories. */
+    public static final long DEFAULT_TENANT = 1L;
+
+    private static final ThreadLocal<Long> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {}
+
+    /**
+     * Returns the tenant bound to the current thread.
+     * @throws IllegalStateException if no tenant is bound
+     */
+    public static long current() {
+        Long tenantId = CURRENT.get();
+        if (tenantId == null) {
+            throw new IllegalStateException("No tenant is bound to " + Thread.currentThread().getName());
+        }
+        return tenantId;
+    }
+
+    static void set(long tenantId) {
+        CURRENT.set(tenantId);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Returns the tenant bound to the current thread, or null if none is.
+     */
+    static Long bound() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Binds a tenant returned by {@link #bound}, or unbinds the thread if it is null.
+     */
+    static void restore(Long tenantId) {
+        if (tenantId != null) {
+            CURRENT.set(tenantId);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Runs an action as the given tenant, restoring the previous tenant afterwards.
+     */
+    public static <T> T callAs(long tenantId, Supplier<T> action) {
+        Long previous = CURRENT.get();
+        CURRENT.set(tenantId);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Runs an action as the given tenant, restoring the previous tenant afterwards.
+     */
+    public static void runAs(long tenantId, Runnable action) {
+        callAs(tenantId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Binds an action to the current tenant, for running on another thread.
+     */
+    public static Runnable wrap(Runnable action) {
+        long tenantId = current();
+        return () -> runAs(tenantId, action);
+    }
+
+    /**
+     * Binds an action to the current tenant, for running on another thread.
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> action) {
+        long tenantId = current();
+        return () -> callAs(tenantId, action);
+    }
+}
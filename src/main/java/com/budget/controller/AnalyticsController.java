@@ -0,0 +1,100 @@
+package com.budget.controller;
+
+import com.budget.dto.CategoryTotalDTO;
+import com.budget.dto.DailyTotalDTO;
+import com.budget.dto.DescriptionTotalDTO;
+import com.budget.service.AnalyticsService;
+import com.budget.service.DataVersionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * REST controller for spending aggregates over arbitrary date ranges. Every endpoint
+ * takes "from" and "to" dates in "YYYY-MM-DD" format, both inclusive, and returns bad
+ * request for malformed or reversed dates.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+    private final DataVersionService dataVersionService;
+    private final int maxDailyDays;
+    private final int maxDescriptions;
+
+    public AnalyticsController(AnalyticsService analyticsService,
+                               DataVersionService dataVersionService,
+                               @Value("${budget.analytics.max-daily-days:3660}") int maxDailyDays,
+                               @Value("${budget.analytics.max-descriptions:100}") int maxDescriptions) {
+        this.analyticsService = analyticsService;
+        this.dataVersionService = dataVersionService;
+        this.maxDailyDays = maxDailyDays;
+        this.maxDescriptions = maxDescriptions;
+    }
+
+    /**
+     * Returns spending per category over the range.
+     */
+    @GetMapping("/categories")
+    public ResponseEntity<List<CategoryTotalDTO>> getCategoryTotals(@RequestParam String from, @RequestParam String to,
+                                                                    WebRequest request) {
+        return respond(from, to, Integer.MAX_VALUE, request,
+                (start, end) -> analyticsService.categoryTotals(start, end));
+    }
+
+    /**
+     * Returns spending per day over the range, which may cover at most max-daily-days days.
+     * @param categoryId optional category to restrict the totals to
+     */
+    @GetMapping("/daily")
+    public ResponseEntity<List<DailyTotalDTO>> getDailyTotals(@RequestParam String from, @RequestParam String to,
+                                                              @RequestParam(required = false) Long categoryId,
+                                                              WebRequest request) {
+        return respond(from, to, maxDailyDays, request,
+                (start, end) -> analyticsService.dailyTotals(start, end, categoryId));
+    }
+
+    /**
+     * Returns the descriptions with the highest total spending over the range.
+     * @param limit optional number of descriptions; defaults to 10, capped at max-descriptions
+     */
+    @GetMapping("/descriptions")
+    public ResponseEntity<List<DescriptionTotalDTO>> getTopDescriptions(@RequestParam String from, @RequestParam String to,
+                                                                        @RequestParam(required = false) Integer limit,
+                                                                        WebRequest request) {
+        int maxResults = Math.min(limit != null && limit > 0 ? limit : 10, maxDescriptions);
+        return respond(from, to, Integer.MAX_VALUE, request,
+                (start, end) -> analyticsService.topDescriptions(start, end, maxResults));
+    }
+
+    /**
+     * Validates the range, then answers 304 Not Modified if the client's ETag matches the
+     * current expense data version, or runs the query.
+     */
+    private <T> ResponseEntity<T> respond(String from, String to, int maxDays, WebRequest request,
+                                          BiFunction<LocalDate, LocalDate, T> query) {
+        LocalDate start;
+        LocalDate end;
+        try {
+            start = LocalDate.parse(from);
+            end = LocalDate.parse(to);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= maxDays) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (request.checkNotModified(dataVersionService.expensesETag())) {
+            return null;
+        }
+        return ResponseEntity.ok(query.apply(start, end));
+    }
+}
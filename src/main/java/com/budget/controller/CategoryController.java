@@ -2,9 +2,13 @@ package com.budget.controller;
 
 import com.budget.dto.CategoryDTO;
 import com.budget.model.Category;
-import com.budget.repository.CategoryRepository;
+import com.budget.service.CategoryService;
+import com.budget.service.DataVersionService;
+import com.budget.service.ExpenseBulkService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,18 +19,27 @@ import java.util.List;
 @RequestMapping("/api/categories")
 public class CategoryController {
 
-    private final CategoryRepository categoryRepository;
+    private final CategoryService categoryService;
+    private final DataVersionService dataVersionService;
+    private final ExpenseBulkService expenseBulkService;
 
-    public CategoryController(CategoryRepository categoryRepository) {
-        this.categoryRepository = categoryRepository;
+    public CategoryController(CategoryService categoryService,
+                              DataVersionService dataVersionService,
+                              ExpenseBulkService expenseBulkService) {
+        this.categoryService = categoryService;
+        this.dataVersionService = dataVersionService;
+        this.expenseBulkService = expenseBulkService;
     }
 
     /**
-     * Returns all categories.
+     * Returns all categories, or 304 Not Modified if the client's ETag is still current.
      */
     @GetMapping
-    public List<CategoryDTO> getAllCategories() {
-        return categoryRepository.findAll().stream()
+    public List<CategoryDTO> getAllCategories(WebRequest request) {
+        if (request.checkNotModified(dataVersionService.categoriesETag())) {
+            return null;
+        }
+        return categoryService.findAll().stream()
                 .map(this::toDTO)
                 .toList();
     }
@@ -36,7 +49,7 @@ public class CategoryController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<CategoryDTO> getCategory(@PathVariable Long id) {
-        return categoryRepository.findById(id)
+        return categoryService.findById(id)
                 .map(this::toDTO)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
@@ -47,7 +60,7 @@ public class CategoryController {
      */
     @PostMapping
     public ResponseEntity<CategoryDTO> createCategory(@RequestBody CategoryDTO request) {
-        if (categoryRepository.existsByName(request.name())) {
+        if (categoryService.existsByName(request.name())) {
             return ResponseEntity.badRequest().build();
         }
 
@@ -57,7 +70,7 @@ public class CategoryController {
         category.setColor(request.color() != null ? request.color() : "#6b7280");
         category.setDescription(request.description() != null ? request.description() : "");
 
-        Category saved = categoryRepository.save(category);
+        Category saved = categoryService.create(category);
         return ResponseEntity.ok(toDTO(saved));
     }
 
@@ -66,8 +79,7 @@ public class CategoryController {
      */
     @PutMapping("/{id}")
     public ResponseEntity<CategoryDTO> updateCategory(@PathVariable Long id, @RequestBody CategoryDTO request) {
-        return categoryRepository.findById(id)
-                .map(category -> {
+        return categoryService.update(id, category -> {
                     if (request.name() != null) {
                         category.setName(request.name());
                     }
@@ -80,20 +92,32 @@ public class CategoryController {
                     if (request.description() != null) {
                         category.setDescription(request.description());
                     }
-                    return ResponseEntity.ok(toDTO(categoryRepository.save(category)));
                 })
+                .map(category -> ResponseEntity.ok(toDTO(category)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     /**
-     * Deletes a category by ID.
+     * Deletes a category by ID. A category with expenses can only be deleted by moving
+     * them to another category; otherwise the response is 409 Conflict.
+     * @param moveTo optional ID of the category to receive this category's expenses
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteCategory(@PathVariable Long id) {
-        if (!categoryRepository.existsById(id)) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<Void> deleteCategory(@PathVariable Long id, @RequestParam(required = false) Long moveTo) {
+        Category target = null;
+        if (moveTo != null) {
+            target = categoryService.findById(moveTo).orElse(null);
+            if (target == null || moveTo.equals(id)) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        try {
+            if (!expenseBulkService.deleteCategory(id, target)) {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
-        categoryRepository.deleteById(id);
         return ResponseEntity.noContent().build();
     }
 
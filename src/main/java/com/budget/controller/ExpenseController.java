@@ -1,17 +1,46 @@
 package com.budget.controller;
 
+import com.budget.config.TenantContext;
+import com.budget.dto.BatchResultDTO;
+import com.budget.dto.BulkDeleteRequest;
+import com.budget.dto.BulkResultDTO;
 import com.budget.dto.CreateExpenseRequest;
 import com.budget.dto.ExpenseDTO;
+import com.budget.dto.ExpensePageDTO;
+import com.budget.dto.ImportJobDTO;
+import com.budget.dto.RecategorizeRequest;
 import com.budget.model.Category;
 import com.budget.model.Expense;
-import com.budget.repository.CategoryRepository;
-import com.budget.repository.ExpenseRepository;
+import com.budget.service.CategoryService;
+import com.budget.service.DataVersionService;
+import com.budget.service.ExpenseBatchService;
+import com.budget.service.ExpenseBulkService;
+import com.budget.service.ExpenseExportService;
+import com.budget.service.ExpenseImportService;
+import com.budget.service.ExpenseIngestService;
+import com.budget.service.ExpenseQueryService;
+import com.budget.service.ExpenseSearchService;
+import com.budget.service.ExpenseService;
+import com.budget.service.ImportJob;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * REST controller for managing expenses.
@@ -20,30 +49,149 @@ import java.util.List;
 @RequestMapping("/api/expenses")
 public class ExpenseController {
 
-    private final ExpenseRepository expenseRepository;
-    private final CategoryRepository categoryRepository;
+    private final ExpenseQueryService expenseQueryService;
+    private final CategoryService categoryService;
+    private final ExpenseService expenseService;
+    private final ExpenseBatchService expenseBatchService;
+    private final ExpenseBulkService expenseBulkService;
+    private final ExpenseExportService expenseExportService;
+    private final ExpenseImportService expenseImportService;
+    private final ExpenseIngestService expenseIngestService;
+    private final ExpenseSearchService expenseSearchService;
+    private final DataVersionService dataVersionService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public ExpenseController(ExpenseRepository expenseRepository, CategoryRepository categoryRepository) {
-        this.expenseRepository = expenseRepository;
-        this.categoryRepository = categoryRepository;
+    public ExpenseController(ExpenseQueryService expenseQueryService,
+                             CategoryService categoryService,
+                             ExpenseService expenseService,
+                             ExpenseBatchService expenseBatchService,
+                             ExpenseBulkService expenseBulkService,
+                             ExpenseExportService expenseExportService,
+                             ExpenseImportService expenseImportService,
+                             ExpenseIngestService expenseIngestService,
+                             ExpenseSearchService expenseSearchService,
+                             DataVersionService dataVersionService,
+                             @Value("${budget.expenses.page-size:50}") int defaultPageSize,
+                             @Value("${budget.expenses.max-page-size:500}") int maxPageSize) {
+        this.expenseQueryService = expenseQueryService;
+        this.categoryService = categoryService;
+        this.expenseService = expenseService;
+        this.expenseBatchService = expenseBatchService;
+        this.expenseBulkService = expenseBulkService;
+        this.expenseExportService = expenseExportService;
+        this.expenseImportService = expenseImportService;
+        this.expenseIngestService = expenseIngestService;
+        this.expenseSearchService = expenseSearchService;
+        this.dataVersionService = dataVersionService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     /**
-     * Returns expenses, optionally filtered by month.
+     * Returns expenses, optionally filtered by month. Expenses are projected straight
+     * into DTOs by a single joined query, which is skipped entirely when the client's
+     * ETag is still current.
      * @param month optional month in "YYYY-MM" format
      */
     @GetMapping
-    public List<ExpenseDTO> getExpenses(@RequestParam(required = false) String month) {
+    public List<ExpenseDTO> getExpenses(@RequestParam(required = false) String month, WebRequest request) {
         if (month != null) {
             YearMonth yearMonth = YearMonth.parse(month);
-            return expenseRepository.findByMonth(yearMonth.getYear(), yearMonth.getMonthValue())
-                    .stream()
-                    .map(this::toDTO)
-                    .toList();
+            if (request.checkNotModified(dataVersionService.monthETag(yearMonth))) {
+                return null;
+            }
+            return expenseQueryService.findByMonth(yearMonth);
         }
-        return expenseRepository.findAll().stream()
-                .map(this::toDTO)
-                .toList();
+        if (request.checkNotModified(dataVersionService.expensesETag())) {
+            return null;
+        }
+        return expenseQueryService.findAll();
+    }
+
+    /**
+     * Searches expense descriptions. Every word of the query must match the start of a
+     * word in the description; results are ranked by exact word matches, then newest first.
+     * @param q search words
+     * @param categoryId optional category filter
+     * @param from optional first date in "YYYY-MM-DD" format, inclusive
+     * @param to optional last date in "YYYY-MM-DD" format, inclusive
+     * @param limit optional maximum number of results; defaults to budget.expenses.page-size
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ExpenseDTO>> searchExpenses(@RequestParam String q,
+                                                           @RequestParam(required = false) Long categoryId,
+                                                           @RequestParam(required = false) String from,
+                                                           @RequestParam(required = false) String to,
+                                                           @RequestParam(required = false) Integer limit) {
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = from != null ? LocalDate.parse(from) : null;
+            toDate = to != null ? LocalDate.parse(to) : null;
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int maxResults = limit != null ? Math.min(Math.max(limit, 1), maxPageSize) : defaultPageSize;
+        List<Long> ids = expenseSearchService.search(q, categoryId, fromDate, toDate, maxResults);
+        return ResponseEntity.ok(expenseQueryService.findAllByIdInOrder(ids));
+    }
+
+    /**
+     * Returns one page of expenses ordered by date descending, then ID descending.
+     * Pages are addressed by an opaque cursor rather than an offset, so fetching a
+     * deep page costs the same as fetching the first one.
+     * @param cursor optional nextCursor from a previous page; omit for the first page
+     * @param size optional page size; defaults to budget.expenses.page-size
+     */
+    @GetMapping("/page")
+    public ResponseEntity<ExpensePageDTO> getExpensePage(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer size) {
+        int pageSize = size != null ? Math.min(Math.max(size, 1), maxPageSize) : defaultPageSize;
+        // One extra row tells whether another page follows
+        int limit = pageSize + 1;
+
+        List<ExpenseDTO> expenses;
+        if (cursor == null) {
+            expenses = expenseQueryService.findFirstPage(limit);
+        } else {
+            PagePosition position = decodeCursor(cursor);
+            if (position == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            expenses = expenseQueryService.findPageAfter(position.date(), position.id(), limit);
+        }
+
+        boolean hasMore = expenses.size() > pageSize;
+        List<ExpenseDTO> page = hasMore ? expenses.subList(0, pageSize) : expenses;
+        String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1)) : null;
+
+        return ResponseEntity.ok(new ExpensePageDTO(List.copyOf(page), nextCursor));
+    }
+
+    /**
+     * Exports the full expense history, streamed straight to the response.
+     * @param format "ndjson" (default) or "csv"
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(@RequestParam(defaultValue = "ndjson") String format) {
+        // The body is written on another thread, after the request's tenant is cleared
+        long tenantId = TenantContext.current();
+        return switch (format) {
+            case "ndjson" -> ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"expenses.ndjson\"")
+                    .body(out -> expenseExportService.writeNdjson(tenantId, out));
+            case "csv" -> ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"expenses.csv\"")
+                    .body(out -> expenseExportService.writeCsv(tenantId, out));
+            default -> ResponseEntity.badRequest().build();
+        };
     }
 
     /**
@@ -51,18 +199,20 @@ public class ExpenseController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<ExpenseDTO> getExpense(@PathVariable Long id) {
-        return expenseRepository.findById(id)
-                .map(this::toDTO)
+        return expenseQueryService.findById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     /**
-     * Creates a new expense. Returns bad request if category doesn't exist.
+     * Creates a new expense. Returns bad request if category doesn't exist. With
+     * budget.ingest.enabled the expense is committed together with other concurrent
+     * creates, 429 is returned if too many are already waiting, and 503 if it is not
+     * committed within budget.ingest.timeout.
      */
     @PostMapping
     public ResponseEntity<ExpenseDTO> createExpense(@RequestBody CreateExpenseRequest request) {
-        Category category = categoryRepository.findById(request.categoryId())
+        Category category = categoryService.findById(request.categoryId())
                 .orElse(null);
 
         if (category == null) {
@@ -75,8 +225,51 @@ public class ExpenseController {
         expense.setDate(LocalDate.parse(request.date()));
         expense.setCategory(category);
 
-        Expense saved = expenseRepository.save(expense);
-        return ResponseEntity.ok(toDTO(saved));
+        if (!expenseIngestService.isEnabled()) {
+            return ResponseEntity.ok(ExpenseDTO.from(expenseService.create(expense)));
+        }
+        try {
+            return ResponseEntity.ok(ExpenseDTO.from(expenseIngestService.create(expense)));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    /**
+     * Creates many expenses in a single transaction. Invalid rows are skipped and
+     * reported by their index in the request; valid rows are still created.
+     */
+    @PostMapping("/batch")
+    public BatchResultDTO createExpenses(@RequestBody List<CreateExpenseRequest> requests) {
+        return expenseBatchService.createAll(requests);
+    }
+
+    /**
+     * Starts a background import of a CSV file with (date, amount, description, category)
+     * rows, where category is the category name. Returns the job to poll for progress,
+     * or 429 if too many imports are already waiting.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDTO> importExpenses(@RequestParam("file") MultipartFile file) throws IOException {
+        try {
+            ImportJob job = expenseImportService.start(file);
+            return ResponseEntity.accepted().body(job.toDTO());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
+    /**
+     * Returns the progress of an import job.
+     */
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobDTO> getImportJob(@PathVariable String jobId) {
+        return expenseImportService.getJob(jobId)
+                .map(ImportJob::toDTO)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
@@ -84,8 +277,7 @@ public class ExpenseController {
      */
     @PutMapping("/{id}")
     public ResponseEntity<ExpenseDTO> updateExpense(@PathVariable Long id, @RequestBody CreateExpenseRequest request) {
-        return expenseRepository.findById(id)
-                .map(expense -> {
+        return expenseService.update(id, expense -> {
                     if (request.amount() != null) {
                         expense.setAmount(request.amount());
                     }
@@ -96,39 +288,98 @@ public class ExpenseController {
                         expense.setDate(LocalDate.parse(request.date()));
                     }
                     if (request.categoryId() != null) {
-                        categoryRepository.findById(request.categoryId())
+                        categoryService.findById(request.categoryId())
                                 .ifPresent(expense::setCategory);
                     }
-                    return ResponseEntity.ok(toDTO(expenseRepository.save(expense)));
                 })
+                .map(expense -> ResponseEntity.ok(ExpenseDTO.from(expense)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Deletes many expenses in one statement, either by ID or by filter. A filter needs
+     * at least one of categoryId, from and to, so an empty request cannot delete everything.
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkResultDTO> bulkDelete(@RequestBody BulkDeleteRequest request) {
+        boolean byIds = request.ids() != null;
+        boolean byFilter = request.categoryId() != null || request.from() != null || request.to() != null;
+        if (byIds == byFilter) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (byIds) {
+            return ResponseEntity.ok(new BulkResultDTO(expenseBulkService.deleteByIds(request.ids())));
+        }
+
+        LocalDate from;
+        LocalDate to;
+        try {
+            from = request.from() != null ? LocalDate.parse(request.from()) : null;
+            to = request.to() != null ? LocalDate.parse(request.to()) : null;
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(new BulkResultDTO(expenseBulkService.deleteMatching(request.categoryId(), from, to)));
+    }
+
+    /**
+     * Moves every expense from one category to another in one statement.
+     */
+    @PostMapping("/recategorize")
+    public ResponseEntity<BulkResultDTO> recategorize(@RequestBody RecategorizeRequest request) {
+        if (request.fromCategoryId() == null || request.toCategoryId() == null
+                || request.fromCategoryId().equals(request.toCategoryId())
+                || categoryService.findById(request.fromCategoryId()).isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return categoryService.findById(request.toCategoryId())
+                .map(target -> ResponseEntity.ok(new BulkResultDTO(
+                        expenseBulkService.recategorize(request.fromCategoryId(), target))))
+                .orElse(ResponseEntity.badRequest().build());
+    }
+
     /**
      * Deletes an expense by ID.
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteExpense(@PathVariable Long id) {
-        if (!expenseRepository.existsById(id)) {
+        if (!expenseService.delete(id)) {
             return ResponseEntity.notFound().build();
         }
-        expenseRepository.deleteById(id);
         return ResponseEntity.noContent().build();
     }
 
     /**
-     * Converts an Expense entity to an ExpenseDTO.
+     * Encodes the (date, id) position of an expense as an opaque URL-safe cursor.
      */
-    private ExpenseDTO toDTO(Expense expense) {
-        return new ExpenseDTO(
-                expense.getId(),
-                expense.getAmount(),
-                expense.getDescription(),
-                expense.getDate(),
-                expense.getCategory().getId(),
-                expense.getCategory().getName(),
-                expense.getCategory().getColor()
-        );
+    private String encodeCursor(ExpenseDTO expense) {
+        String position = expense.date() + ":" + expense.id();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
     }
-}
 
+    /**
+     * Decodes a cursor into the (date, id) position it was created from.
+     * @return null if the cursor is malformed
+     */
+    private PagePosition decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(':');
+            if (separator < 0) {
+                return null;
+            }
+            return new PagePosition(
+                    LocalDate.parse(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Position of the last expense on a page, as carried by a cursor.
+     */
+    private record PagePosition(LocalDate date, Long id) {}
+}
@@ -0,0 +1,115 @@
+package com.budget.controller;
+
+import com.budget.dto.CreateRecurringExpenseRequest;
+import com.budget.dto.RecurringExpenseDTO;
+import com.budget.model.Cadence;
+import com.budget.model.Money;
+import com.budget.model.RecurringExpense;
+import com.budget.service.CategoryService;
+import com.budget.service.RecurringExpenseService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * REST controller for managing recurring expense schedules.
+ */
+@RestController
+@RequestMapping("/api/recurring-expenses")
+public class RecurringExpenseController {
+
+    private final RecurringExpenseService recurringExpenseService;
+    private final CategoryService categoryService;
+    private final Period maxBackfill;
+
+    public RecurringExpenseController(RecurringExpenseService recurringExpenseService,
+                                      CategoryService categoryService,
+                                      @Value("${budget.recurring.max-backfill:P10Y}") Period maxBackfill) {
+        this.recurringExpenseService = recurringExpenseService;
+        this.categoryService = categoryService;
+        this.maxBackfill = maxBackfill;
+    }
+
+    /**
+     * Returns all schedules.
+     */
+    @GetMapping
+    public List<RecurringExpenseDTO> getRecurringExpenses() {
+        return recurringExpenseService.findAll().stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    /**
+     * Creates a schedule. Occurrences from a start date in the past are backfilled in
+     * the background. Returns bad request for a missing, non-positive or sub-cent amount,
+     * an unknown category or cadence, malformed or reversed dates, or a start date more
+     * than budget.recurring.max-backfill ago.
+     */
+    @PostMapping
+    public ResponseEntity<RecurringExpenseDTO> createRecurringExpense(@RequestBody CreateRecurringExpenseRequest request) {
+        if (request.amount() == null || request.amount().signum() <= 0
+                || request.amount().stripTrailingZeros().scale() > Money.SCALE || request.categoryId() == null || request.cadence() == null
+                || request.startDate() == null || categoryService.findById(request.categoryId()).isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        Cadence cadence;
+        LocalDate startDate;
+        LocalDate endDate;
+        try {
+            cadence = Cadence.valueOf(request.cadence().toUpperCase());
+            startDate = LocalDate.parse(request.startDate());
+            endDate = request.endDate() != null ? LocalDate.parse(request.endDate()) : null;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (endDate != null && endDate.isBefore(startDate)
+                || startDate.isBefore(LocalDate.now().minus(maxBackfill))) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        RecurringExpense saved = recurringExpenseService.create(new RecurringExpense(
+                request.categoryId(), request.amount(), request.description(), cadence, startDate, endDate));
+        return ResponseEntity.ok(toDTO(saved));
+    }
+
+    /**
+     * Deletes a schedule. Expenses it already posted are kept.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteRecurringExpense(@PathVariable Long id) {
+        if (!recurringExpenseService.delete(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Queues a run posting every occurrence due up to today, rather than waiting for the
+     * nightly run. The run covers every tenant, so no count is reported back.
+     */
+    @PostMapping("/materialize")
+    public ResponseEntity<Void> materialize() {
+        recurringExpenseService.materializeDueInBackground();
+        return ResponseEntity.accepted().build();
+    }
+
+    private RecurringExpenseDTO toDTO(RecurringExpense recurringExpense) {
+        return new RecurringExpenseDTO(
+                recurringExpense.getId(),
+                recurringExpense.getAmount(),
+                recurringExpense.getDescription(),
+                recurringExpense.getCategoryId(),
+                recurringExpense.getCadence(),
+                recurringExpense.getStartDate(),
+                recurringExpense.getEndDate(),
+                recurringExpense.getNextDate()
+        );
+    }
+}
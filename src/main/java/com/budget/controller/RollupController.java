@@ -0,0 +1,40 @@
+package com.budget.controller;
+
+import com.budget.config.TenantContext;
+import com.budget.dto.RollupVerificationDTO;
+import com.budget.service.RollupService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for maintaining the current tenant's monthly category rollup behind
+ * summaries.
+ */
+@RestController
+@RequestMapping("/api/summary/rollup")
+public class RollupController {
+
+    private final RollupService rollupService;
+
+    public RollupController(RollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    /**
+     * Compares the tenant's rollup against its expenses and lists any differences.
+     */
+    @GetMapping("/verify")
+    public RollupVerificationDTO verify() {
+        return rollupService.verify(TenantContext.current());
+    }
+
+    /**
+     * Recomputes the tenant's rollup from its expenses.
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<RollupVerificationDTO> rebuild() {
+        long tenantId = TenantContext.current();
+        rollupService.rebuild(tenantId);
+        return ResponseEntity.ok(rollupService.verify(tenantId));
+    }
+}
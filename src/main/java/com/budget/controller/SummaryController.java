@@ -1,16 +1,22 @@
 package com.budget.controller;
 
-import com.budget.dto.CategorySummaryDTO;
+import com.budget.dto.MonthTrendDTO;
 import com.budget.dto.MonthlySummaryDTO;
-import com.budget.model.Category;
-import com.budget.model.Expense;
-import com.budget.repository.CategoryRepository;
-import com.budget.repository.ExpenseRepository;
+import com.budget.dto.RangeSummaryDTO;
+import com.budget.service.DataVersionService;
+import com.budget.service.RangeSummaryService;
+import com.budget.service.SummaryService;
+import com.budget.service.SummaryStreamService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 /**
@@ -20,88 +26,98 @@ import java.util.List;
 @RequestMapping("/api/summary")
 public class SummaryController {
 
-    private final ExpenseRepository expenseRepository;
-    private final CategoryRepository categoryRepository;
-
-    public SummaryController(ExpenseRepository expenseRepository, CategoryRepository categoryRepository) {
-        this.expenseRepository = expenseRepository;
-        this.categoryRepository = categoryRepository;
+    private final SummaryService summaryService;
+    private final DataVersionService dataVersionService;
+    private final SummaryStreamService summaryStreamService;
+    private final RangeSummaryService rangeSummaryService;
+    private final int maxTrendMonths;
+
+    public SummaryController(SummaryService summaryService,
+                             DataVersionService dataVersionService,
+                             SummaryStreamService summaryStreamService,
+                             RangeSummaryService rangeSummaryService,
+                             @Value("${budget.summary.max-trend-months:120}") int maxTrendMonths) {
+        this.summaryService = summaryService;
+        this.dataVersionService = dataVersionService;
+        this.summaryStreamService = summaryStreamService;
+        this.rangeSummaryService = rangeSummaryService;
+        this.maxTrendMonths = maxTrendMonths;
     }
 
     /**
      * Returns a monthly summary with total spending and per-category breakdown.
+     * Responds 304 Not Modified without building the summary when the client's
+     * ETag matches the month's current data version.
      * @param month optional month in "YYYY-MM" format; defaults to current month
      */
     @GetMapping
-    public MonthlySummaryDTO getMonthlySummary(@RequestParam(required = false) String month) {
+    public MonthlySummaryDTO getMonthlySummary(@RequestParam(required = false) String month, WebRequest request) {
         YearMonth yearMonth = month != null ? YearMonth.parse(month) : YearMonth.now();
-        int year = yearMonth.getYear();
-        int monthValue = yearMonth.getMonthValue();
-
-        List<Category> categories = categoryRepository.findAll();
-        List<Expense> expenses = expenseRepository.findByMonth(year, monthValue);
-
-        BigDecimal totalSpent = expenses.stream()
-                .map(Expense::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalLimit = categories.stream()
-                .map(Category::getMonthlyLimit)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        List<CategorySummaryDTO> categoryBreakdown = categories.stream()
-                .map(category -> {
-                    BigDecimal spent = expenses.stream()
-                            .filter(e -> e.getCategory().getId().equals(category.getId()))
-                            .map(Expense::getAmount)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                    BigDecimal limit = category.getMonthlyLimit();
-                    double percentUsed = calculatePercentage(spent, limit);
-                    String status = determineStatus(percentUsed, limit);
-
-                    return new CategorySummaryDTO(
-                            category.getId(),
-                            category.getName(),
-                            category.getColor(),
-                            spent,
-                            limit,
-                            percentUsed,
-                            status
-                    );
-                })
-                .toList();
+        if (request.checkNotModified(dataVersionService.monthETag(yearMonth))) {
+            return null;
+        }
+        return summaryService.getMonthlySummary(yearMonth);
+    }
 
-        return new MonthlySummaryDTO(year, monthValue, totalSpent, totalLimit, categoryBreakdown);
+    /**
+     * Streams a month's summary as server-sent events: the full summary first, then
+     * an updated category line whenever an expense in that month changes.
+     * @param month optional month in "YYYY-MM" format; defaults to current month
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamMonthlySummary(@RequestParam(required = false) String month) {
+        YearMonth yearMonth = month != null ? YearMonth.parse(month) : YearMonth.now();
+        return summaryStreamService.subscribe(yearMonth);
     }
 
     /**
-     * Calculates the percentage of limit used.
-     * @return 0.0 if limit is null or zero, otherwise (spent/limit)*100
+     * Returns per-category spending for each month in a range, in one request.
+     * @param from first month in "YYYY-MM" format
+     * @param to last month in "YYYY-MM" format, inclusive
      */
-    private double calculatePercentage(BigDecimal spent, BigDecimal limit) {
-        if (limit == null || limit.compareTo(BigDecimal.ZERO) == 0) {
-            return 0.0;
+    @GetMapping("/trend")
+    public ResponseEntity<List<MonthTrendDTO>> getTrend(@RequestParam String from, @RequestParam String to,
+                                                        WebRequest request) {
+        YearMonth start;
+        YearMonth end;
+        try {
+            start = YearMonth.parse(from);
+            end = YearMonth.parse(to);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
         }
-        return spent.multiply(BigDecimal.valueOf(100))
-                .divide(limit, 2, RoundingMode.HALF_UP)
-                .doubleValue();
+        if (start.isAfter(end) || ChronoUnit.MONTHS.between(start, end) >= maxTrendMonths) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (request.checkNotModified(dataVersionService.expensesETag())) {
+            return null;
+        }
+        return ResponseEntity.ok(summaryService.getTrend(start, end));
     }
 
     /**
-     * Determines budget status based on percentage used.
-     * @return "exceeded" if >100%, "warning" if >=80%, otherwise "ok"
+     * Returns a summary over the months from {@code from} to {@code to}, inclusive, such
+     * as year to date or a fiscal year, with each category's limit scaled by the number
+     * of months. Returns bad request for malformed or reversed months, or a range longer
+     * than max-trend-months.
      */
-    private String determineStatus(double percentUsed, BigDecimal limit) {
-        if (limit == null || limit.compareTo(BigDecimal.ZERO) == 0) {
-            return "ok";
+    @GetMapping("/range")
+    public ResponseEntity<RangeSummaryDTO> getRangeSummary(@RequestParam String from, @RequestParam String to,
+                                                           WebRequest request) {
+        YearMonth start;
+        YearMonth end;
+        try {
+            start = YearMonth.parse(from);
+            end = YearMonth.parse(to);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
         }
-        if (percentUsed > 100) {
-            return "exceeded";
-        } else if (percentUsed >= 80) {
-            return "warning";
+        if (start.isAfter(end) || ChronoUnit.MONTHS.between(start, end) >= maxTrendMonths) {
+            return ResponseEntity.badRequest().build();
         }
-        return "ok";
+        if (request.checkNotModified(dataVersionService.expensesETag())) {
+            return null;
+        }
+        return ResponseEntity.ok(rangeSummaryService.getRangeSummary(start, end));
     }
 }
-
@@ -0,0 +1,6 @@
+package com.budget.dto;
+
+public record BatchErrorDTO(
+    int index, // position of the rejected row in the request
+    String message
+) {}
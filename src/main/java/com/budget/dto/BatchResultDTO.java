@@ -0,0 +1,8 @@
+package com.budget.dto;
+
+import java.util.List;
+
+public record BatchResultDTO(
+    int created,
+    List<BatchErrorDTO> errors
+) {}
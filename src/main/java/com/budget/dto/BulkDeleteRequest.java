@@ -0,0 +1,10 @@
+package com.budget.dto;
+
+import java.util.List;
+
+public record BulkDeleteRequest(
+    List<Long> ids,     // Either ids, or at least one of the filter fields below
+    Long categoryId,
+    String from,        // YYYY-MM-DD, inclusive
+    String to           // YYYY-MM-DD, inclusive
+) {}
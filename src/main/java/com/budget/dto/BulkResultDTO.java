@@ -0,0 +1,5 @@
+package com.budget.dto;
+
+public record BulkResultDTO(
+    int affected
+) {}
@@ -0,0 +1,12 @@
+package com.budget.dto;
+
+import java.math.BigDecimal;
+
+public record CategoryMonthTotalDTO(
+    Long tenantId,
+    Long categoryId,
+    Integer year,
+    Integer month,
+    BigDecimal spent,
+    Long expenseCount
+) {}
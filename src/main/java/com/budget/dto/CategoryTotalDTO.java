@@ -0,0 +1,8 @@
+package com.budget.dto;
+
+import java.math.BigDecimal;
+
+public record CategoryTotalDTO(
+    Long categoryId,
+    BigDecimal spent
+) {}
@@ -0,0 +1,12 @@
+package com.budget.dto;
+
+import java.math.BigDecimal;
+
+public record CreateRecurringExpenseRequest(
+    BigDecimal amount,
+    String description,
+    Long categoryId,
+    String cadence,
+    String startDate,
+    String endDate
+) {}
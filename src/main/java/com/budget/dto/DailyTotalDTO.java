@@ -0,0 +1,10 @@
+package com.budget.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record DailyTotalDTO(
+    LocalDate date,
+    BigDecimal spent,
+    Long expenseCount
+) {}
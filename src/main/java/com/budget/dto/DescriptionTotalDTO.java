@@ -0,0 +1,9 @@
+package com.budget.dto;
+
+import java.math.BigDecimal;
+
+public record DescriptionTotalDTO(
+    String description,
+    BigDecimal spent,
+    Long expenseCount
+) {}
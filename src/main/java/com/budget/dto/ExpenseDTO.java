@@ -1,5 +1,7 @@
 package com.budget.dto;
 
+import com.budget.model.Expense;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
@@ -11,5 +13,20 @@ public record ExpenseDTO(
     Long categoryId,
     String categoryName,
     String categoryColor
-) {}
+) {
 
+    /**
+     * Converts an Expense entity to an ExpenseDTO.
+     */
+    public static ExpenseDTO from(Expense expense) {
+        return new ExpenseDTO(
+                expense.getId(),
+                expense.getAmount(),
+                expense.getDescription(),
+                expense.getDate(),
+                expense.getCategory().getId(),
+                expense.getCategory().getName(),
+                expense.getCategory().getColor()
+        );
+    }
+}
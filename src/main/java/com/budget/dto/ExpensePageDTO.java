@@ -0,0 +1,8 @@
+package com.budget.dto;
+
+import java.util.List;
+
+public record ExpensePageDTO(
+    List<ExpenseDTO> items,
+    String nextCursor // null when there are no more pages
+) {}
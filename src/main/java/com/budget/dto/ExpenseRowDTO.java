@@ -0,0 +1,16 @@
+package com.budget.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * An expense with its tenant, as loaded across all tenants to build the in-memory indexes.
+ */
+public record ExpenseRowDTO(
+    Long tenantId,
+    Long id,
+    BigDecimal amount,
+    String description,
+    LocalDate date,
+    Long categoryId
+) {}
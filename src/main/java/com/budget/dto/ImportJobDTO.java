@@ -0,0 +1,12 @@
+package com.budget.dto;
+
+import java.util.List;
+
+public record ImportJobDTO(
+    String id,
+    String status, // "queued", "running", "completed", "failed"
+    long rowsImported,
+    long rowsRejected,
+    double rowsPerSecond,
+    List<String> errors
+) {}
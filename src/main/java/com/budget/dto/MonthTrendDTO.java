@@ -0,0 +1,11 @@
+package com.budget.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record MonthTrendDTO(
+    int year,
+    int month,
+    BigDecimal totalSpent,
+    List<CategoryTotalDTO> categories // Only categories with spending in the month
+) {}
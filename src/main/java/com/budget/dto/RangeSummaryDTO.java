@@ -0,0 +1,14 @@
+package com.budget.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+public record RangeSummaryDTO(
+    YearMonth from,
+    YearMonth to,
+    int months,
+    BigDecimal totalSpent,
+    BigDecimal totalLimit,
+    List<CategorySummaryDTO> categoryBreakdown
+) {}
@@ -0,0 +1,6 @@
+package com.budget.dto;
+
+public record RecategorizeRequest(
+    Long fromCategoryId,
+    Long toCategoryId
+) {}
@@ -0,0 +1,17 @@
+package com.budget.dto;
+
+import com.budget.model.Cadence;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public record RecurringExpenseDTO(
+    Long id,
+    BigDecimal amount,
+    String description,
+    Long categoryId,
+    Cadence cadence,
+    LocalDate startDate,
+    LocalDate endDate,
+    LocalDate nextDate
+) {}
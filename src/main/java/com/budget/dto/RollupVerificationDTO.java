@@ -0,0 +1,8 @@
+package com.budget.dto;
+
+import java.util.List;
+
+public record RollupVerificationDTO(
+    boolean consistent,
+    List<String> mismatches
+) {}
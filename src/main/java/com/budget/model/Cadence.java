@@ -0,0 +1,26 @@
+package com.budget.model;
+
+import java.time.LocalDate;
+
+/**
+ * How often a recurring expense falls due.
+ */
+public enum Cadence {
+    WEEKLY,
+    MONTHLY,
+    YEARLY;
+
+    /**
+     * Returns the date of the nth occurrence (0-based) of a schedule starting on start.
+     * Each occurrence is computed from the start date rather than from the previous
+     * occurrence, so a schedule starting on the 31st falls on the last day of shorter
+     * months without drifting to the 28th for the rest of the year.
+     */
+    public LocalDate occurrence(LocalDate start, long n) {
+        return switch (this) {
+            case WEEKLY -> start.plusWeeks(n);
+            case MONTHLY -> start.plusMonths(n);
+            case YEARLY -> start.plusYears(n);
+        };
+    }
+}
@@ -1,17 +1,28 @@
 package com.budget.model;
 
+import com.budget.config.TenantContext;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", uniqueConstraints = {
+        // Names are unique per tenant; lookups by name use this index too
+        @UniqueConstraint(name = "uk_categories_tenant_name", columnNames = {"tenant_id", "name"})
+})
 public class Category {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_seq")
+    @SequenceGenerator(name = "category_seq", sequenceName = "categories_seq", initialValue = 100, allocationSize = 50)
+    private Long id; // Starts at 100 to leave room for the seeded categories in data.sql
+
+    @Column(name = "tenant_id", nullable = false)
+    @ColumnDefault("1") // Rows created before tenants existed belong to the default tenant
+    private Long tenantId;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String name;
 
     @Column(nullable = false)
@@ -31,6 +42,13 @@ public class Category {
         this.description = description != null ? description : "";
     }
 
+    @PrePersist
+    void assignTenant() {
+        if (tenantId == null) {
+            tenantId = TenantContext.current();
+        }
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -40,6 +58,14 @@ public class Category {
         this.id = id;
     }
 
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Long tenantId) {
+        this.tenantId = tenantId;
+    }
+
     public String getName() {
         return name;
     }
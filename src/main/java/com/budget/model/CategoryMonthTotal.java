@@ -0,0 +1,97 @@
+package com.budget.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Running total of a category's expenses for one month. Kept in step with the
+ * expenses table by {@link com.budget.service.RollupService} so summaries never
+ * have to scan expenses.
+ */
+@Entity
+@Table(name = "category_month_totals", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_category_month_totals", columnNames = {"category_id", "month_start"})
+}, indexes = {
+        @Index(name = "idx_category_month_totals_tenant_month", columnList = "tenant_id, month_start")
+})
+public class CategoryMonthTotal {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_month_total_seq")
+    @SequenceGenerator(name = "category_month_total_seq", sequenceName = "category_month_totals_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    @ColumnDefault("1")
+    private Long tenantId; // The category's tenant
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private LocalDate monthStart; // First day of the month
+
+    @Column(nullable = false)
+    private BigDecimal spent;
+
+    @Column(nullable = false)
+    private long expenseCount;
+
+    public CategoryMonthTotal() {}
+
+    public CategoryMonthTotal(Long tenantId, Long categoryId, LocalDate monthStart, BigDecimal spent, long expenseCount) {
+        this.tenantId = tenantId;
+        this.categoryId = categoryId;
+        this.monthStart = monthStart;
+        this.spent = spent;
+        this.expenseCount = expenseCount;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public LocalDate getMonthStart() {
+        return monthStart;
+    }
+
+    public void setMonthStart(LocalDate monthStart) {
+        this.monthStart = monthStart;
+    }
+
+    public BigDecimal getSpent() {
+        return spent;
+    }
+
+    public void setSpent(BigDecimal spent) {
+        this.spent = spent;
+    }
+
+    public long getExpenseCount() {
+        return expenseCount;
+    }
+
+    public void setExpenseCount(long expenseCount) {
+        this.expenseCount = expenseCount;
+    }
+}
@@ -1,17 +1,31 @@
 package com.budget.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "expenses")
+@Table(name = "expenses", uniqueConstraints = {
+        // Natural key of a posted recurring occurrence; NULLs (one-off expenses) never collide
+        @UniqueConstraint(name = "uk_expenses_recurring_occurrence",
+                columnNames = {"recurring_expense_id", "recurring_occurrence"})
+}, indexes = {
+        @Index(name = "idx_expenses_tenant_date", columnList = "tenant_id, date"),
+        @Index(name = "idx_expenses_category_date", columnList = "category_id, date")
+})
 public class Expense {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "expense_seq")
+    @SequenceGenerator(name = "expense_seq", sequenceName = "expenses_seq", allocationSize = 50)
     private Long id;
 
+    @Column(name = "tenant_id", nullable = false)
+    @ColumnDefault("1")
+    private Long tenantId; // Always the category's tenant
+
     @Column(nullable = false)
     private BigDecimal amount;
 
@@ -20,17 +34,29 @@ public class Expense {
     @Column(nullable = false)
     private LocalDate date;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
 
+    @Column(name = "recurring_expense_id")
+    private Long recurringExpenseId; // Set when posted from a RecurringExpense
+
+    @Column(name = "recurring_occurrence")
+    private Integer recurringOccurrence;
+
     public Expense() {}
 
     public Expense(BigDecimal amount, String description, LocalDate date, Category category) {
         this.amount = amount;
         this.description = description;
         this.date = date;
-        this.category = category;
+        setCategory(category);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void assignTenant() {
+        tenantId = category.getTenantId();
     }
 
     // Getters and Setters
@@ -42,6 +68,10 @@ public class Expense {
         this.id = id;
     }
 
+    public Long getTenantId() {
+        return tenantId;
+    }
+
     public BigDecimal getAmount() {
         return amount;
     }
@@ -72,5 +102,22 @@ public class Expense {
 
     public void setCategory(Category category) {
         this.category = category;
+        this.tenantId = category != null ? category.getTenantId() : null;
+    }
+
+    public Long getRecurringExpenseId() {
+        return recurringExpenseId;
+    }
+
+    public Integer getRecurringOccurrence() {
+        return recurringOccurrence;
+    }
+
+    /**
+     * Links this expense to the recurring schedule and occurrence it was posted for.
+     */
+    public void setRecurrence(Long recurringExpenseId, Integer recurringOccurrence) {
+        this.recurringExpenseId = recurringExpenseId;
+        this.recurringOccurrence = recurringOccurrence;
     }
 }
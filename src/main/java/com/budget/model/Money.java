@@ -0,0 +1,90 @@
+package com.budget.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An amount of money as a whole number of cents. Used inside aggregations so totals
+ * and percentages are computed with long arithmetic instead of allocating a new
+ * BigDecimal per step. Amounts are converted at the entity and DTO boundary.
+ */
+public record Money(long cents) {
+
+    /** Number of decimal places in every stored amount. */
+    public static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0);
+
+    /**
+     * Converts a BigDecimal amount to cents, rounding fractions of a cent half up as
+     * the database does when it stores the amount.
+     * @throws ArithmeticException if the amount does not fit in a long
+     */
+    public static Money of(BigDecimal amount) {
+        if (amount.scale() == SCALE) {
+            // Amounts read from the database already have two decimal places. Moving the
+            // point leaves a scale-0 value whose long is read directly, so the temporary
+            // BigDecimal does not escape and no BigInteger is made.
+            return new Money(amount.scaleByPowerOfTen(SCALE).longValueExact());
+        }
+        return new Money(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(cents));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    /**
+     * Returns this amount as a percentage of a limit, rounded half up to two decimal
+     * places. Gives the same result as {@code amount * 100 / limit} in BigDecimal
+     * with {@code RoundingMode.HALF_UP}.
+     * @return 0.0 if the limit is zero
+     */
+    public double percentOf(Money limit) {
+        if (limit.cents == 0) {
+            return 0.0;
+        }
+        long basisPoints;
+        try {
+            // Percent to two decimal places is a whole number of hundredths of a percent
+            long numerator = Math.multiplyExact(Math.absExact(cents), 10_000L);
+            long denominator = Math.absExact(limit.cents);
+            long quotient = numerator / denominator;
+            long remainder = numerator % denominator;
+            if (remainder >= denominator - remainder) {
+                quotient++;
+            }
+            basisPoints = Long.signum(cents) * Long.signum(limit.cents) * quotient;
+        } catch (ArithmeticException e) {
+            return toBigDecimal().multiply(BigDecimal.valueOf(100))
+                    .divide(limit.toBigDecimal(), 2, RoundingMode.HALF_UP)
+                    .doubleValue();
+        }
+        return basisPoints / 100.0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * Returns this amount with the given scale, for callers that need to match the
+     * scale a BigDecimal computation would have produced.
+     * @throws ArithmeticException if the scale cannot represent the amount exactly
+     */
+    public BigDecimal toBigDecimal(int scale) {
+        return BigDecimal.valueOf(cents, SCALE).setScale(scale);
+    }
+}
@@ -0,0 +1,157 @@
+package com.budget.model;
+
+import com.budget.config.TenantContext;
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Definition of an expense that repeats on a fixed cadence. Occurrences are posted as
+ * ordinary expenses by {@link com.budget.service.RecurringExpenseService}, which
+ * advances {@code nextOccurrence} in the same transaction as the inserts.
+ */
+@Entity
+@Table(name = "recurring_expenses", indexes = {
+        @Index(name = "idx_recurring_expenses_next_date", columnList = "next_date"),
+        @Index(name = "idx_recurring_expenses_tenant", columnList = "tenant_id")
+})
+public class RecurringExpense {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recurring_expense_seq")
+    @SequenceGenerator(name = "recurring_expense_seq", sequenceName = "recurring_expenses_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false)
+    @ColumnDefault("1")
+    private Long tenantId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Cadence cadence;
+
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    private LocalDate endDate; // Inclusive; null repeats forever
+
+    @Column(nullable = false)
+    private int nextOccurrence; // Index of the first occurrence not yet posted
+
+    @Column(name = "next_date")
+    private LocalDate nextDate; // Date of nextOccurrence; null once the schedule has ended
+
+    public RecurringExpense() {}
+
+    public RecurringExpense(Long categoryId, BigDecimal amount, String description,
+                            Cadence cadence, LocalDate startDate, LocalDate endDate) {
+        this.categoryId = categoryId;
+        this.amount = amount;
+        this.description = description;
+        this.cadence = cadence;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.nextOccurrence = 0;
+        this.nextDate = withinSchedule(startDate);
+    }
+
+    /**
+     * Whether an occurrence is due on or before the given date.
+     */
+    public boolean isDue(LocalDate today) {
+        return nextDate != null && !nextDate.isAfter(today);
+    }
+
+    /**
+     * Marks the next occurrence as posted.
+     */
+    public void advance() {
+        nextOccurrence++;
+        nextDate = withinSchedule(cadence.occurrence(startDate, nextOccurrence));
+    }
+
+    /**
+     * Ends the schedule without posting anything further.
+     */
+    public void stop() {
+        nextDate = null;
+    }
+
+    private LocalDate withinSchedule(LocalDate date) {
+        return endDate != null && date.isAfter(endDate) ? null : date;
+    }
+
+    @PrePersist
+    void assignTenant() {
+        if (tenantId == null) {
+            tenantId = TenantContext.current();
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTenantId() {
+        return tenantId;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Cadence getCadence() {
+        return cadence;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public int getNextOccurrence() {
+        return nextOccurrence;
+    }
+
+    public LocalDate getNextDate() {
+        return nextDate;
+    }
+}
@@ -0,0 +1,81 @@
+package com.budget.repository;
+
+import com.budget.model.CategoryMonthTotal;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Totals are read per tenant; updates address a single category, which belongs to exactly one tenant.
+ */
+@Repository
+public interface CategoryMonthTotalRepository extends JpaRepository<CategoryMonthTotal, Long> {
+
+    List<CategoryMonthTotal> findByTenantId(Long tenantId);
+
+    List<CategoryMonthTotal> findByTenantIdAndMonthStart(Long tenantId, LocalDate monthStart);
+
+    /**
+     * Finds a tenant's totals for every month from the first to the last month start, inclusive.
+     */
+    List<CategoryMonthTotal> findByTenantIdAndMonthStartBetweenOrderByMonthStartAscCategoryIdAsc(
+            Long tenantId, LocalDate from, LocalDate to);
+
+    /**
+     * Loads a category's totals and locks them until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM CategoryMonthTotal t WHERE t.categoryId = :categoryId")
+    List<CategoryMonthTotal> findByCategoryIdForUpdate(@Param("categoryId") Long categoryId);
+
+    /**
+     * Locks a tenant's totals, optionally of one category, for every month from the first
+     * to the last month start, inclusive, until the transaction ends; null bounds are open.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM CategoryMonthTotal t WHERE t.tenantId = :tenantId " +
+           "AND (:categoryId IS NULL OR t.categoryId = :categoryId) " +
+           "AND (:from IS NULL OR t.monthStart >= :from) AND (:to IS NULL OR t.monthStart <= :to)")
+    List<CategoryMonthTotal> findForUpdate(@Param("tenantId") Long tenantId,
+                                           @Param("categoryId") Long categoryId,
+                                           @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to);
+
+    /**
+     * Reads a single total straight from the database, bypassing any managed entity
+     * that a bulk update may have left stale.
+     */
+    @Query("SELECT t.spent FROM CategoryMonthTotal t WHERE t.categoryId = :categoryId AND t.monthStart = :monthStart")
+    Optional<BigDecimal> findSpent(@Param("categoryId") Long categoryId, @Param("monthStart") LocalDate monthStart);
+
+    /**
+     * Adds a delta to an existing total in place.
+     * @return the number of rows updated; 0 if no total exists yet for the category and month
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CategoryMonthTotal t SET t.spent = t.spent + :amount, t.expenseCount = t.expenseCount + :count " +
+           "WHERE t.categoryId = :categoryId AND t.monthStart = :monthStart")
+    int addToTotal(@Param("categoryId") Long categoryId,
+                   @Param("monthStart") LocalDate monthStart,
+                   @Param("amount") BigDecimal amount,
+                   @Param("count") long count);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CategoryMonthTotal t WHERE t.categoryId = :categoryId")
+    void deleteByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Modifying
+    @Query("DELETE FROM CategoryMonthTotal t WHERE t.tenantId = :tenantId")
+    void deleteByTenantId(@Param("tenantId") Long tenantId);
+}
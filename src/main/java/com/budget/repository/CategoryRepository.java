@@ -1,14 +1,40 @@
 package com.budget.repository;
 
 import com.budget.model.Category;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Every lookup is scoped to one tenant; a category of another tenant is reported as absent.
+ */
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
-    Optional<Category> findByName(String name);
-    boolean existsByName(String name);
-}
+    List<Category> findByTenantIdOrderByIdAsc(Long tenantId);
+    Optional<Category> findByIdAndTenantId(Long id, Long tenantId);
+    List<Category> findByTenantIdAndIdIn(Long tenantId, Collection<Long> ids);
+    Optional<Category> findByTenantIdAndName(Long tenantId, String name);
+    boolean existsByTenantIdAndName(Long tenantId, String name);
+    boolean existsByIdAndTenantId(Long id, Long tenantId);
+
+    /**
+     * Loads a category and locks it until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Category c WHERE c.id = :id")
+    Optional<Category> findByIdForUpdate(@Param("id") Long id);
 
+    /**
+     * Loads a tenant's categories and locks them until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Category c WHERE c.tenantId = :tenantId")
+    List<Category> findByTenantIdForUpdate(@Param("tenantId") Long tenantId);
+}
@@ -1,23 +1,257 @@
 package com.budget.repository;
 
+import com.budget.dto.CategoryMonthTotalDTO;
+import com.budget.dto.CategoryTotalDTO;
+import com.budget.dto.DailyTotalDTO;
+import com.budget.dto.DescriptionTotalDTO;
+import com.budget.dto.ExpenseDTO;
+import com.budget.dto.ExpenseRowDTO;
+import com.budget.model.Category;
 import com.budget.model.Expense;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Month lookups are expressed as half-open date ranges ({@code date >= start AND date < end})
+ * so they can use the indexes declared on {@link Expense} instead of scanning the table.
+ * Read endpoints use the {@link ExpenseDTO} projections, which select the category columns
+ * in the same joined query instead of loading Expense and Category entities. Queries that
+ * still return entities for reading are hinted read-only, so Hibernate keeps no snapshot
+ * of them for dirty checking, and full-month and full-table lists fetch rows in large chunks.
+ * <p>
+ * Reads take the tenant whose expenses they return, and filter on it first so they
+ * use the (tenant_id, date) index. Only the rollup rebuild and the in-memory index
+ * loads read across tenants. Writes by ID or category address rows the caller has
+ * already looked up within its tenant.
+ */
 @Repository
 public interface ExpenseRepository extends JpaRepository<Expense, Long> {
 
-    List<Expense> findByDateBetweenOrderByDateDesc(LocalDate startDate, LocalDate endDate);
+    List<Expense> findByTenantIdAndDateBetweenOrderByDateDesc(Long tenantId, LocalDate startDate, LocalDate endDate);
 
-    @Query("SELECT e FROM Expense e WHERE YEAR(e.date) = :year AND MONTH(e.date) = :month ORDER BY e.date DESC")
-    List<Expense> findByMonth(@Param("year") int year, @Param("month") int month);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT e FROM Expense e WHERE e.tenantId = :tenantId AND e.date >= :start AND e.date < :end " +
+           "ORDER BY e.date DESC")
+    List<Expense> findByDateRange(@Param("tenantId") Long tenantId,
+                                  @Param("start") LocalDate start,
+                                  @Param("end") LocalDate end);
 
-    @Query("SELECT e FROM Expense e WHERE e.category.id = :categoryId AND YEAR(e.date) = :year AND MONTH(e.date) = :month")
-    List<Expense> findByCategoryAndMonth(@Param("categoryId") Long categoryId, @Param("year") int year, @Param("month") int month);
-}
+    @Query("SELECT e FROM Expense e JOIN FETCH e.category WHERE e.id = :id AND e.tenantId = :tenantId")
+    Optional<Expense> findWithCategoryById(@Param("tenantId") Long tenantId, @Param("id") Long id);
+
+    Optional<Expense> findByIdAndTenantId(Long id, Long tenantId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT e FROM Expense e WHERE e.tenantId = :tenantId AND e.category.id = :categoryId " +
+           "AND e.date >= :start AND e.date < :end")
+    List<Expense> findByCategoryAndDateRange(@Param("tenantId") Long tenantId,
+                                             @Param("categoryId") Long categoryId,
+                                             @Param("start") LocalDate start,
+                                             @Param("end") LocalDate end);
+
+    @Query("SELECT new com.budget.dto.ExpenseDTO(e.id, e.amount, e.description, e.date, c.id, c.name, c.color) " +
+           "FROM Expense e JOIN e.category c WHERE e.id = :id AND e.tenantId = :tenantId")
+    Optional<ExpenseDTO> findDTOById(@Param("tenantId") Long tenantId, @Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.budget.dto.ExpenseDTO(e.id, e.amount, e.description, e.date, c.id, c.name, c.color) " +
+           "FROM Expense e JOIN e.category c WHERE e.tenantId = :tenantId")
+    List<ExpenseDTO> findAllDTOs(@Param("tenantId") Long tenantId);
+
+    @Query("SELECT new com.budget.dto.ExpenseDTO(e.id, e.amount, e.description, e.date, c.id, c.name, c.color) " +
+           "FROM Expense e JOIN e.category c WHERE e.tenantId = :tenantId AND e.id IN :ids")
+    List<ExpenseDTO> findDTOsByIds(@Param("tenantId") Long tenantId, @Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.budget.dto.ExpenseDTO(e.id, e.amount, e.description, e.date, c.id, c.name, c.color) " +
+           "FROM Expense e JOIN e.category c WHERE e.tenantId = :tenantId AND e.date >= :start AND e.date < :end " +
+           "ORDER BY e.date DESC")
+    List<ExpenseDTO> findDTOsByDateRange(@Param("tenantId") Long tenantId,
+                                         @Param("start") LocalDate start,
+                                         @Param("end") LocalDate end);
+
+    /**
+     * Sums expense amounts per category over a date range in a single grouped query.
+     * Categories without expenses in the range are not returned.
+     */
+    @Query("SELECT new com.budget.dto.CategoryTotalDTO(e.category.id, SUM(e.amount)) FROM Expense e " +
+           "WHERE e.tenantId = :tenantId AND e.date >= :start AND e.date < :end GROUP BY e.category.id")
+    List<CategoryTotalDTO> sumByCategoryForDateRange(@Param("tenantId") Long tenantId,
+                                                     @Param("start") LocalDate start,
+                                                     @Param("end") LocalDate end);
+
+    /**
+     * Sums expense amounts and counts per day over a date range, optionally for one category.
+     */
+    @Query("SELECT new com.budget.dto.DailyTotalDTO(e.date, SUM(e.amount), COUNT(e)) FROM Expense e " +
+           "WHERE e.tenantId = :tenantId AND e.date >= :start AND e.date < :end " +
+           "AND (:categoryId IS NULL OR e.category.id = :categoryId) " +
+           "GROUP BY e.date ORDER BY e.date")
+    List<DailyTotalDTO> sumByDayForDateRange(@Param("tenantId") Long tenantId,
+                                             @Param("start") LocalDate start,
+                                             @Param("end") LocalDate end,
+                                             @Param("categoryId") Long categoryId);
+
+    /**
+     * Sums expense amounts and counts per distinct description over a date range, highest spending first.
+     */
+    @Query("SELECT new com.budget.dto.DescriptionTotalDTO(COALESCE(e.description, ''), SUM(e.amount), COUNT(e)) " +
+           "FROM Expense e WHERE e.tenantId = :tenantId AND e.date >= :start AND e.date < :end " +
+           "GROUP BY COALESCE(e.description, '') ORDER BY SUM(e.amount) DESC")
+    List<DescriptionTotalDTO> sumByDescriptionForDateRange(@Param("tenantId") Long tenantId,
+                                                           @Param("start") LocalDate start,
+                                                           @Param("end") LocalDate end,
+                                                           Limit limit);
+
+    /**
+     * Sums expense amounts and counts per category and month across all tenants.
+     * Used to rebuild the category_month_totals rollup.
+     */
+    @Query("SELECT new com.budget.dto.CategoryMonthTotalDTO(e.tenantId, e.category.id, YEAR(e.date), MONTH(e.date), " +
+           "SUM(e.amount), COUNT(e)) " +
+           "FROM Expense e GROUP BY e.tenantId, e.category.id, YEAR(e.date), MONTH(e.date)")
+    List<CategoryMonthTotalDTO> sumByCategoryAndMonth();
+
+    /**
+     * Sums one tenant's expense amounts and counts per category and month.
+     * Used to rebuild and verify the tenant's part of the category_month_totals rollup.
+     */
+    @Query("SELECT new com.budget.dto.CategoryMonthTotalDTO(e.tenantId, e.category.id, YEAR(e.date), MONTH(e.date), " +
+           "SUM(e.amount), COUNT(e)) " +
+           "FROM Expense e WHERE e.tenantId = :tenantId GROUP BY e.tenantId, e.category.id, YEAR(e.date), MONTH(e.date)")
+    List<CategoryMonthTotalDTO> sumByCategoryAndMonth(@Param("tenantId") Long tenantId);
+
+    /**
+     * Returns the first page of a tenant's expenses in (date DESC, id DESC) order.
+     */
+    @Query("SELECT new com.budget.dto.ExpenseDTO(e.id, e.amount, e.description, e.date, c.id, c.name, c.color) " +
+           "FROM Expense e JOIN e.category c WHERE e.tenantId = :tenantId ORDER BY e.date DESC, e.id DESC")
+    List<ExpenseDTO> findFirstPage(@Param("tenantId") Long tenantId, Limit limit);
+
+    /**
+     * Returns the page of a tenant's expenses that follows the given (date, id) position in
+     * (date DESC, id DESC) order. Seeks past the position rather than using OFFSET,
+     * so the cost does not grow with how deep the page is.
+     */
+    @Query("SELECT new com.budget.dto.ExpenseDTO(e.id, e.amount, e.description, e.date, c.id, c.name, c.color) " +
+           "FROM Expense e JOIN e.category c " +
+           "WHERE e.tenantId = :tenantId AND (e.date < :date OR (e.date = :date AND e.id < :id)) " +
+           "ORDER BY e.date DESC, e.id DESC")
+    List<ExpenseDTO> findPageAfter(@Param("tenantId") Long tenantId,
+                                   @Param("date") LocalDate date,
+                                   @Param("id") Long id,
+                                   Limit limit);
 
+    /**
+     * Streams every expense of a tenant with its category in (date, id) order. Rows are fetched from
+     * the JDBC cursor in chunks and loaded read-only; callers must consume the stream inside
+     * a transaction and close it when done.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM Expense e JOIN FETCH e.category WHERE e.tenantId = :tenantId ORDER BY e.date, e.id")
+    Stream<Expense> streamAll(@Param("tenantId") Long tenantId);
+
+    /**
+     * Locks the rows of a tenant's expenses by ID until the transaction ends, so a bulk
+     * operation can account for exactly the rows it is about to change.
+     * @return the IDs that exist and belong to the tenant
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e.id FROM Expense e WHERE e.tenantId = :tenantId AND e.id IN :ids")
+    List<Long> lockIds(@Param("tenantId") Long tenantId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Sums a tenant's expense amounts and counts per category and month over the given IDs.
+     */
+    @Query("SELECT new com.budget.dto.CategoryMonthTotalDTO(e.tenantId, e.category.id, YEAR(e.date), MONTH(e.date), " +
+           "SUM(e.amount), COUNT(e)) " +
+           "FROM Expense e WHERE e.tenantId = :tenantId AND e.id IN :ids " +
+           "GROUP BY e.tenantId, e.category.id, YEAR(e.date), MONTH(e.date)")
+    List<CategoryMonthTotalDTO> sumByCategoryAndMonthForIds(@Param("tenantId") Long tenantId,
+                                                            @Param("ids") Collection<Long> ids);
+
+    /**
+     * Sums a tenant's expense amounts and counts per category and month over the expenses
+     * matching every given filter; null filters match everything.
+     */
+    @Query("SELECT new com.budget.dto.CategoryMonthTotalDTO(e.tenantId, e.category.id, YEAR(e.date), MONTH(e.date), " +
+           "SUM(e.amount), COUNT(e)) " +
+           "FROM Expense e WHERE e.tenantId = :tenantId " +
+           "AND (:categoryId IS NULL OR e.category.id = :categoryId) " +
+           "AND (:from IS NULL OR e.date >= :from) AND (:to IS NULL OR e.date <= :to) " +
+           "GROUP BY e.tenantId, e.category.id, YEAR(e.date), MONTH(e.date)")
+    List<CategoryMonthTotalDTO> sumByCategoryAndMonthMatching(@Param("tenantId") Long tenantId,
+                                                              @Param("categoryId") Long categoryId,
+                                                              @Param("from") LocalDate from,
+                                                              @Param("to") LocalDate to);
+
+    boolean existsByCategoryId(Long categoryId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Expense e WHERE e.tenantId = :tenantId AND e.id IN :ids")
+    int deleteByIds(@Param("tenantId") Long tenantId, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes a tenant's expenses matching every given filter; null filters match everything.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Expense e WHERE e.tenantId = :tenantId " +
+           "AND (:categoryId IS NULL OR e.category.id = :categoryId) " +
+           "AND (:from IS NULL OR e.date >= :from) AND (:to IS NULL OR e.date <= :to)")
+    int deleteMatching(@Param("tenantId") Long tenantId,
+                       @Param("categoryId") Long categoryId,
+                       @Param("from") LocalDate from,
+                       @Param("to") LocalDate to);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Expense e SET e.category = :toCategory WHERE e.category.id = :fromCategoryId")
+    int moveToCategory(@Param("fromCategoryId") Long fromCategoryId, @Param("toCategory") Category toCategory);
+
+    /**
+     * Streams every expense of every tenant in ID order, under the same rules as
+     * {@link #streamAll(Long)}. Used to load the in-memory indexes.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.budget.dto.ExpenseRowDTO(e.tenantId, e.id, e.amount, e.description, e.date, e.category.id) " +
+           "FROM Expense e ORDER BY e.id")
+    Stream<ExpenseRowDTO> streamAllRows();
+
+    default List<Expense> findByMonth(Long tenantId, int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return findByDateRange(tenantId, yearMonth.atDay(1), yearMonth.plusMonths(1).atDay(1));
+    }
+
+    default List<ExpenseDTO> findDTOsByMonth(Long tenantId, int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return findDTOsByDateRange(tenantId, yearMonth.atDay(1), yearMonth.plusMonths(1).atDay(1));
+    }
+
+    default List<Expense> findByCategoryAndMonth(Long tenantId, Long categoryId, int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return findByCategoryAndDateRange(tenantId, categoryId, yearMonth.atDay(1), yearMonth.plusMonths(1).atDay(1));
+    }
+
+    default List<CategoryTotalDTO> sumByCategoryForMonth(Long tenantId, int year, int month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        return sumByCategoryForDateRange(tenantId, yearMonth.atDay(1), yearMonth.plusMonths(1).atDay(1));
+    }
+}
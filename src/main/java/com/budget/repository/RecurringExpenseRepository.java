@@ -0,0 +1,46 @@
+package com.budget.repository;
+
+import com.budget.model.RecurringExpense;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecurringExpenseRepository extends JpaRepository<RecurringExpense, Long> {
+
+    List<RecurringExpense> findByTenantIdOrderByIdAsc(Long tenantId);
+
+    boolean existsByIdAndTenantId(Long id, Long tenantId);
+
+    /**
+     * Finds the IDs of schedules of any tenant with an occurrence due on or before the
+     * given date, in ID order.
+     */
+    @Query("SELECT r.id FROM RecurringExpense r WHERE r.nextDate <= :date ORDER BY r.id")
+    List<Long> findDueIds(@Param("date") LocalDate date, Limit limit);
+
+    /**
+     * Loads schedules by ID and locks them until the transaction ends, so two
+     * materializations can never post the same occurrence.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RecurringExpense r WHERE r.id IN :ids ORDER BY r.id")
+    List<RecurringExpense> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RecurringExpense r SET r.categoryId = :toCategoryId WHERE r.categoryId = :fromCategoryId")
+    int moveToCategory(@Param("fromCategoryId") Long fromCategoryId, @Param("toCategoryId") Long toCategoryId);
+
+    @Modifying
+    @Query("DELETE FROM RecurringExpense r WHERE r.categoryId = :categoryId")
+    int deleteByCategoryId(@Param("categoryId") Long categoryId);
+}
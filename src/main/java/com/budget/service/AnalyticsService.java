@@ -0,0 +1,66 @@
+package com.budget.service;
+
+import com.budget.config.TenantContext;
+import com.budget.dto.CategoryTotalDTO;
+import com.budget.dto.DailyTotalDTO;
+import com.budget.dto.DescriptionTotalDTO;
+import com.budget.repository.ExpenseRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Aggregates over arbitrary date ranges of the current tenant's expenses. Answered by
+ * scanning the tenant's partition of the column store, or with grouped SQL queries when
+ * the store is disabled or has not finished loading. All ranges include both ends.
+ */
+@Service
+public class AnalyticsService {
+
+    private final ExpenseColumnStore expenseColumnStore;
+    private final ExpenseRepository expenseRepository;
+
+    public AnalyticsService(ExpenseColumnStore expenseColumnStore, ExpenseRepository expenseRepository) {
+        this.expenseColumnStore = expenseColumnStore;
+        this.expenseRepository = expenseRepository;
+    }
+
+    /**
+     * Returns spending per category, in category ID order. Categories without expenses
+     * in the range are not returned.
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryTotalDTO> categoryTotals(LocalDate from, LocalDate to) {
+        List<CategoryTotalDTO> totals = expenseColumnStore.isLoaded()
+                ? expenseColumnStore.sumByCategory(TenantContext.current(), from, to.plusDays(1))
+                : expenseRepository.sumByCategoryForDateRange(TenantContext.current(), from, to.plusDays(1));
+        return totals.stream()
+                .sorted(Comparator.comparing(CategoryTotalDTO::categoryId))
+                .toList();
+    }
+
+    /**
+     * Returns spending per day, optionally for one category. Days without expenses are not returned.
+     */
+    @Transactional(readOnly = true)
+    public List<DailyTotalDTO> dailyTotals(LocalDate from, LocalDate to, Long categoryId) {
+        return expenseColumnStore.isLoaded()
+                ? expenseColumnStore.sumByDay(TenantContext.current(), from, to.plusDays(1), categoryId)
+                : expenseRepository.sumByDayForDateRange(TenantContext.current(), from, to.plusDays(1), categoryId);
+    }
+
+    /**
+     * Returns the descriptions with the highest total spending.
+     */
+    @Transactional(readOnly = true)
+    public List<DescriptionTotalDTO> topDescriptions(LocalDate from, LocalDate to, int limit) {
+        return expenseColumnStore.isLoaded()
+                ? expenseColumnStore.topDescriptions(TenantContext.current(), from, to.plusDays(1), limit)
+                : expenseRepository.sumByDescriptionForDateRange(TenantContext.current(), from, to.plusDays(1),
+                        Limit.of(limit));
+    }
+}
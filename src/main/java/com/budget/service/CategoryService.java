@@ -0,0 +1,112 @@
+package com.budget.service;
+
+import com.budget.config.CacheConfig;
+import com.budget.config.TenantContext;
+import com.budget.model.Category;
+import com.budget.repository.CategoryMonthTotalRepository;
+import com.budget.repository.CategoryRepository;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Category lookups and writes for the current tenant. A tenant's categories are few and
+ * rarely change, so lookups are cached per tenant; any write evicts every category
+ * entry and every monthly summary of the tenant once it commits, since summaries embed
+ * category names, colors and limits, and bumps the tenant's category data version.
+ */
+@Service
+public class CategoryService {
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryMonthTotalRepository categoryMonthTotalRepository;
+    private final DataVersionService dataVersionService;
+
+    public CategoryService(CategoryRepository categoryRepository,
+                           CategoryMonthTotalRepository categoryMonthTotalRepository,
+                           DataVersionService dataVersionService) {
+        this.categoryRepository = categoryRepository;
+        this.categoryMonthTotalRepository = categoryMonthTotalRepository;
+        this.dataVersionService = dataVersionService;
+    }
+
+    /**
+     * Returns all categories.
+     */
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, keyGenerator = CacheConfig.TENANT_KEY_GENERATOR)
+    @Transactional(readOnly = true)
+    public List<Category> findAll() {
+        return List.copyOf(categoryRepository.findByTenantIdOrderByIdAsc(TenantContext.current()));
+    }
+
+    /**
+     * Returns a category by ID.
+     */
+    @Cacheable(cacheNames = CacheConfig.CATEGORY, keyGenerator = CacheConfig.TENANT_KEY_GENERATOR)
+    @Transactional(readOnly = true)
+    public Optional<Category> findById(Long id) {
+        return categoryRepository.findByIdAndTenantId(id, TenantContext.current());
+    }
+
+    @Transactional(readOnly = true)
+    public boolean existsByName(String name) {
+        return categoryRepository.existsByTenantIdAndName(TenantContext.current(), name);
+    }
+
+    /**
+     * Saves a new category.
+     */
+    @Transactional
+    public Category create(Category category) {
+        category.setTenantId(TenantContext.current());
+        Category saved = categoryRepository.save(category);
+        categoriesChanged(saved.getTenantId());
+        return saved;
+    }
+
+    /**
+     * Applies changes to an existing category and saves it. The category is loaded
+     * from the database rather than the cache so a failed save cannot leave a
+     * half-modified instance in the cache.
+     * @return empty if no category has the given ID
+     */
+    @Transactional
+    public Optional<Category> update(Long id, Consumer<Category> changes) {
+        return categoryRepository.findByIdAndTenantId(id, TenantContext.current())
+                .map(category -> {
+                    changes.accept(category);
+                    Category saved = categoryRepository.save(category);
+                    categoriesChanged(saved.getTenantId());
+                    return saved;
+                });
+    }
+
+    /**
+     * Deletes a category by ID along with its monthly rollup rows.
+     * @return false if no category has the given ID
+     */
+    @Transactional
+    public boolean delete(Long id) {
+        long tenantId = TenantContext.current();
+        if (!categoryRepository.existsByIdAndTenantId(id, tenantId)) {
+            return false;
+        }
+        categoryRepository.deleteById(id);
+        categoryMonthTotalRepository.deleteByCategoryId(id);
+        categoriesChanged(tenantId);
+        return true;
+    }
+
+    /**
+     * Evicts the tenant's cached categories and summaries and bumps its category
+     * version, once the current transaction commits.
+     */
+    private void categoriesChanged(long tenantId) {
+        Transactions.afterCommit(() -> CacheConfig.evictTenant(tenantId));
+        dataVersionService.categoriesChanged(tenantId);
+    }
+}
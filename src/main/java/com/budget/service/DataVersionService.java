@@ -0,0 +1,129 @@
+package com.budget.service;
+
+import com.budget.config.TenantContext;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counters for the data behind cacheable GET responses, used to build ETags
+ * without querying the database. Expense writes bump the version of the month they
+ * touch, and category writes bump the category version, which every ETag includes
+ * because expense and summary responses embed category details. Counters are kept
+ * per tenant and every ETag names its tenant, so one tenant's writes never invalidate
+ * another's ETags and an ETag is never valid for a different tenant.
+ * <p>
+ * Versions are bumped after the writing transaction commits, once the caches and
+ * in-memory stores have taken its changes, and read before a response is built, so an
+ * ETag can describe older data than the body but never newer.
+ * Counters live in memory; each ETag includes the startup time so a restart
+ * invalidates every ETag issued before it.
+ */
+@Service
+public class DataVersionService {
+
+    // Versions of a tenant with no writes since startup; never incremented
+    private static final TenantVersions UNCHANGED = new TenantVersions();
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    // Bumped when every month of every tenant changes at once, so month counters never need resetting
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Long, TenantVersions> tenants = new ConcurrentHashMap<>();
+
+    /**
+     * Records that a tenant's expenses in a month changed.
+     */
+    public void expensesChanged(long tenantId, YearMonth month) {
+        Transactions.afterCommitLast(() -> {
+            TenantVersions versions = versionsForWrite(tenantId);
+            versions.monthVersions.computeIfAbsent(month, key -> new AtomicLong()).incrementAndGet();
+            versions.expenseVersion.incrementAndGet();
+        });
+    }
+
+    /**
+     * Records that expenses of any tenant in any month may have changed.
+     */
+    public void allExpensesChanged() {
+        Transactions.afterCommitLast(generation::incrementAndGet);
+    }
+
+    /**
+     * Records that a tenant's expenses in any month may have changed.
+     */
+    public void allExpensesChanged(long tenantId) {
+        Transactions.afterCommitLast(() -> {
+            TenantVersions versions = versionsForWrite(tenantId);
+            versions.generation.incrementAndGet();
+            versions.expenseVersion.incrementAndGet();
+        });
+    }
+
+    /**
+     * Records that a tenant's categories changed.
+     */
+    public void categoriesChanged(long tenantId) {
+        Transactions.afterCommitLast(() -> versionsForWrite(tenantId).categoryVersion.incrementAndGet());
+    }
+
+    /**
+     * ETag for responses built from the current tenant's categories only.
+     */
+    public String categoriesETag() {
+        long tenantId = TenantContext.current();
+        TenantVersions versions = versionsForRead(tenantId);
+        return etag(tenantId, "c" + versions.categoryVersion.get());
+    }
+
+    /**
+     * ETag for responses built from one month of the current tenant's expenses and categories.
+     */
+    public String monthETag(YearMonth month) {
+        long tenantId = TenantContext.current();
+        TenantVersions versions = versionsForRead(tenantId);
+        AtomicLong monthVersion = versions.monthVersions.get(month);
+        return etag(tenantId, "c" + versions.categoryVersion.get()
+                + "-g" + generation.get() + "." + versions.generation.get()
+                + "-" + month + "." + (monthVersion != null ? monthVersion.get() : 0));
+    }
+
+    /**
+     * ETag for responses built from the current tenant's expenses in any month and categories.
+     */
+    public String expensesETag() {
+        long tenantId = TenantContext.current();
+        TenantVersions versions = versionsForRead(tenantId);
+        return etag(tenantId, "c" + versions.categoryVersion.get()
+                + "-g" + generation.get()
+                + "-e" + versions.expenseVersion.get());
+    }
+
+    private TenantVersions versionsForWrite(long tenantId) {
+        return tenants.computeIfAbsent(tenantId, id -> new TenantVersions());
+    }
+
+    /**
+     * Reads never add a tenant, so a stream of unknown tenant IDs cannot grow the map.
+     */
+    private TenantVersions versionsForRead(long tenantId) {
+        return tenants.getOrDefault(tenantId, UNCHANGED);
+    }
+
+    private String etag(long tenantId, String version) {
+        return "\"" + epoch + "-t" + tenantId + "-" + version + "\"";
+    }
+
+    /**
+     * Counters of one tenant.
+     */
+    private static final class TenantVersions {
+        private final AtomicLong categoryVersion = new AtomicLong();
+        private final AtomicLong expenseVersion = new AtomicLong();
+        // Bumped when every month of the tenant changes at once
+        private final AtomicLong generation = new AtomicLong();
+        private final Map<YearMonth, AtomicLong> monthVersions = new ConcurrentHashMap<>();
+    }
+}
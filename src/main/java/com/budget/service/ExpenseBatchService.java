@@ -0,0 +1,119 @@
+package com.budget.service;
+
+import com.budget.config.TenantContext;
+import com.budget.dto.BatchErrorDTO;
+import com.budget.dto.BatchResultDTO;
+import com.budget.dto.CreateExpenseRequest;
+import com.budget.model.Category;
+import com.budget.model.Expense;
+import com.budget.repository.CategoryRepository;
+import com.budget.repository.ExpenseRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Inserts many expenses for the current tenant in one transaction using JDBC batching.
+ */
+@Service
+public class ExpenseBatchService {
+
+    private final ExpenseRepository expenseRepository;
+    private final CategoryRepository categoryRepository;
+    private final RollupService rollupService;
+    private final ExpenseSearchService expenseSearchService;
+    private final ExpenseColumnStore expenseColumnStore;
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public ExpenseBatchService(ExpenseRepository expenseRepository,
+                               CategoryRepository categoryRepository,
+                               RollupService rollupService,
+                               ExpenseSearchService expenseSearchService,
+                               ExpenseColumnStore expenseColumnStore,
+                               EntityManager entityManager,
+                               @Value("${budget.expenses.batch-size:50}") int batchSize) {
+        this.expenseRepository = expenseRepository;
+        this.categoryRepository = categoryRepository;
+        this.rollupService = rollupService;
+        this.expenseSearchService = expenseSearchService;
+        this.expenseColumnStore = expenseColumnStore;
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Creates an expense for every valid request and reports the rest as errors.
+     * Categories are resolved with a single query, and the persistence context is
+     * flushed and cleared every batch so memory stays bounded for large imports.
+     */
+    @Transactional
+    public BatchResultDTO createAll(List<CreateExpenseRequest> requests) {
+        Map<Long, Category> categories = categoryRepository.findByTenantIdAndIdIn(
+                        TenantContext.current(),
+                        requests.stream()
+                                .map(CreateExpenseRequest::categoryId)
+                                .filter(Objects::nonNull)
+                                .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        List<BatchErrorDTO> errors = new ArrayList<>();
+        List<Expense> pending = new ArrayList<>(batchSize);
+        int created = 0;
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateExpenseRequest request = requests.get(i);
+            Category category = categories.get(request.categoryId());
+            LocalDate date = parseDate(request.date());
+
+            if (request.amount() == null) {
+                errors.add(new BatchErrorDTO(i, "amount is required"));
+            } else if (date == null) {
+                errors.add(new BatchErrorDTO(i, "date must be in YYYY-MM-DD format"));
+            } else if (category == null) {
+                errors.add(new BatchErrorDTO(i, "category not found: " + request.categoryId()));
+            } else {
+                pending.add(expenseRepository.save(new Expense(request.amount(), request.description(), date, category)));
+                if (++created % batchSize == 0) {
+                    rollupService.addAll(pending);
+                    expenseSearchService.indexAll(pending);
+                    expenseColumnStore.putAll(pending);
+                    pending.clear();
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        rollupService.addAll(pending);
+        expenseSearchService.indexAll(pending);
+        expenseColumnStore.putAll(pending);
+
+        return new BatchResultDTO(created, errors);
+    }
+
+    /**
+     * Parses an ISO date.
+     * @return null if the date is missing or malformed
+     */
+    private LocalDate parseDate(String date) {
+        if (date == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.budget.service;
+
+import com.budget.config.TenantContext;
+import com.budget.dto.CategoryMonthTotalDTO;
+import com.budget.model.Category;
+import com.budget.repository.ExpenseRepository;
+import com.budget.repository.RecurringExpenseRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Deletes and reassigns many of the current tenant's expenses with single set-based
+ * statements instead of one round trip per expense. The rollup is adjusted from one
+ * grouped sum per category and month over the same rows, so no expense is loaded.
+ * <p>
+ * A delete by filter first locks the rollup totals and categories the filter covers.
+ * Every write to an expense updates the total of its category and month, or locks the
+ * category to start one, so the rows matching the filter cannot change between the sum
+ * and the delete.
+ */
+@Service
+public class ExpenseBulkService {
+
+    private final ExpenseRepository expenseRepository;
+    private final CategoryService categoryService;
+    private final RollupService rollupService;
+    private final ExpenseSearchService expenseSearchService;
+    private final ExpenseColumnStore expenseColumnStore;
+    private final RecurringExpenseRepository recurringExpenseRepository;
+
+    public ExpenseBulkService(ExpenseRepository expenseRepository,
+                              CategoryService categoryService,
+                              RollupService rollupService,
+                              ExpenseSearchService expenseSearchService,
+                              ExpenseColumnStore expenseColumnStore,
+                              RecurringExpenseRepository recurringExpenseRepository) {
+        this.expenseRepository = expenseRepository;
+        this.categoryService = categoryService;
+        this.rollupService = rollupService;
+        this.expenseSearchService = expenseSearchService;
+        this.expenseColumnStore = expenseColumnStore;
+        this.recurringExpenseRepository = recurringExpenseRepository;
+    }
+
+    /**
+     * Deletes expenses by ID. IDs that do not exist or belong to another tenant are ignored.
+     * @return the number of expenses deleted
+     */
+    @Transactional
+    public int deleteByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // Locking the rows means the rollup is adjusted for exactly what gets deleted
+        long tenantId = TenantContext.current();
+        List<Long> existingIds = expenseRepository.lockIds(tenantId, ids);
+        if (existingIds.isEmpty()) {
+            return 0;
+        }
+        rollupService.removeTotals(expenseRepository.sumByCategoryAndMonthForIds(tenantId, existingIds));
+        expenseSearchService.removeAll(tenantId, existingIds);
+        expenseColumnStore.removeAll(tenantId, existingIds);
+        return expenseRepository.deleteByIds(tenantId, existingIds);
+    }
+
+    /**
+     * Deletes every expense matching all given filters; null filters match everything.
+     * @param to optional last date, inclusive
+     * @return the number of expenses deleted
+     */
+    @Transactional
+    public int deleteMatching(Long categoryId, LocalDate from, LocalDate to) {
+        long tenantId = TenantContext.current();
+        rollupService.lockTotals(tenantId, categoryId, from, to);
+        List<CategoryMonthTotalDTO> totals =
+                expenseRepository.sumByCategoryAndMonthMatching(tenantId, categoryId, from, to);
+        if (totals.isEmpty()) {
+            return 0;
+        }
+        rollupService.removeTotals(totals);
+        expenseSearchService.removeMatching(tenantId, categoryId, from, to);
+        expenseColumnStore.removeMatching(tenantId, categoryId, from, to);
+        return expenseRepository.deleteMatching(tenantId, categoryId, from, to);
+    }
+
+    /**
+     * Moves every expense in one category to another. The rollup is updated from the
+     * source category's monthly totals, without reading the expenses themselves. Both
+     * categories must belong to the current tenant.
+     * @return the number of expenses moved
+     */
+    @Transactional
+    public int recategorize(Long fromCategoryId, Category toCategory) {
+        long tenantId = toCategory.getTenantId();
+        rollupService.moveCategory(fromCategoryId, toCategory.getId());
+        expenseSearchService.moveCategory(tenantId, fromCategoryId, toCategory.getId());
+        expenseColumnStore.moveCategory(tenantId, fromCategoryId, toCategory.getId());
+        return expenseRepository.moveToCategory(fromCategoryId, toCategory);
+    }
+
+    /**
+     * Deletes a category, first moving its expenses and recurring schedules to another
+     * category if one is given. Without one, the category's schedules are deleted.
+     * @param moveTo category to receive the expenses, or null if the category must have none
+     * @return false if the current tenant has no category with the given ID
+     * @throws IllegalStateException if the category still has expenses and moveTo is null
+     */
+    @Transactional
+    public boolean deleteCategory(Long id, Category moveTo) {
+        if (categoryService.findById(id).isEmpty()) {
+            return false;
+        }
+        if (moveTo != null) {
+            recategorize(id, moveTo);
+            recurringExpenseRepository.moveToCategory(id, moveTo.getId());
+        } else if (expenseRepository.existsByCategoryId(id)) {
+            throw new IllegalStateException("Category " + id + " still has expenses");
+        } else {
+            recurringExpenseRepository.deleteByCategoryId(id);
+        }
+        return categoryService.delete(id);
+    }
+}
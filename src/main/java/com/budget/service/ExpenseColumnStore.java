@@ -0,0 +1,604 @@
+package com.budget.service;
+
+import com.budget.dto.CategoryTotalDTO;
+import com.budget.dto.DailyTotalDTO;
+import com.budget.dto.DescriptionTotalDTO;
+import com.budget.dto.ExpenseRowDTO;
+import com.budget.model.Expense;
+import com.budget.model.Money;
+import com.budget.repository.ExpenseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory columnar copy of the expenses table for analytic scans. Each expense is one
+ * row across parallel primitive arrays: epoch day, category index, amount in cents and
+ * description code, with categories and descriptions dictionary-encoded. A scan reads
+ * only the columns it needs, sequentially, with no per-row objects, and a row costs
+ * about 40 bytes instead of an Expense entity, its BigDecimal, LocalDate and String.
+ * <p>
+ * Rows are partitioned by tenant, each partition with its own columns and dictionaries,
+ * so a scan only reads the requesting tenant's expenses.
+ * <p>
+ * Like the search index, the store is loaded from the database at startup and then
+ * kept current by the write paths, with changes applied once their transaction
+ * commits. Until the first load finishes, and when the store is turned off with
+ * budget.columnar.enabled, analytic reads fall back to SQL aggregates.
+ * <p>
+ * Descriptions of deleted rows stay in their partition's dictionary until the
+ * partition is compacted, which re-encodes the live rows, so a dictionary never holds
+ * more entries than its partition has rows.
+ */
+@Service
+public class ExpenseColumnStore {
+
+    private static final int INITIAL_CAPACITY = 128; // Per tenant; most households have few expenses
+    private static final int DELETED = -1;
+
+    private final ExpenseRepository expenseRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Partition> partitions = new HashMap<>();
+    private volatile boolean loaded;
+
+    public ExpenseColumnStore(ExpenseRepository expenseRepository,
+                              @Value("${budget.columnar.enabled:true}") boolean enabled) {
+        this.expenseRepository = expenseRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether the store is enabled and has finished its first load, so that its scans
+     * see every expense.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Reloads every expense from the database. Reads and updates wait until the load finishes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            partitions.clear();
+            try (Stream<ExpenseRowDTO> all = expenseRepository.streamAllRows()) {
+                all.forEach(expense -> partition(expense.tenantId()).append(new Row(expense.id(), expense.date(),
+                        expense.categoryId(), Money.of(expense.amount()).cents(), expense.description())));
+            }
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a created or updated expense, replacing any previous row for it.
+     */
+    public void put(Expense expense) {
+        putAll(List.of(expense));
+    }
+
+    /**
+     * Adds created or updated expenses, replacing any previous rows for them.
+     */
+    public void putAll(Collection<Expense> changed) {
+        if (!enabled) {
+            return;
+        }
+        // Copy now; the entities may be detached or modified before the commit
+        List<TenantRow> rows = changed.stream()
+                .map(expense -> new TenantRow(expense.getTenantId(), new Row(expense.getId(), expense.getDate(),
+                        expense.getCategory().getId(), Money.of(expense.getAmount()).cents(), expense.getDescription())))
+                .toList();
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                rows.forEach(row -> {
+                    Partition partition = partition(row.tenantId());
+                    partition.delete(row.row().id());
+                    partition.append(row.row());
+                });
+                rows.stream().map(TenantRow::tenantId).distinct()
+                        .forEach(tenantId -> partitions.get(tenantId).compactIfSparse());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes deleted expenses of one tenant.
+     */
+    public void removeAll(long tenantId, Collection<Long> removedIds) {
+        if (!enabled) {
+            return;
+        }
+        List<Long> removed = List.copyOf(removedIds);
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Partition partition = partitions.get(tenantId);
+                if (partition != null) {
+                    removed.forEach(partition::delete);
+                    partition.compactIfSparse();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes a tenant's expenses matching every given filter, for a bulk delete by the
+     * same filter; null filters match everything and {@code to} is inclusive.
+     */
+    public void removeMatching(long tenantId, Long categoryId, LocalDate from, LocalDate to) {
+        if (!enabled) {
+            return;
+        }
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Partition partition = partitions.get(tenantId);
+                if (partition != null) {
+                    partition.deleteMatching(categoryId, from, to);
+                    partition.compactIfSparse();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Reassigns every expense in one of a tenant's categories to another.
+     */
+    public void moveCategory(long tenantId, Long fromCategoryId, Long toCategoryId) {
+        if (!enabled) {
+            return;
+        }
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                Partition partition = partitions.get(tenantId);
+                if (partition != null) {
+                    partition.moveCategory(fromCategoryId, toCategoryId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Sums a tenant's spending per category over the dates from {@code from}, inclusive,
+     * to {@code to}, exclusive. Categories without expenses in the range are not returned.
+     */
+    public List<CategoryTotalDTO> sumByCategory(long tenantId, LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            Partition partition = partitions.get(tenantId);
+            return partition != null ? partition.sumByCategory(from, to) : List.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sums a tenant's spending per day over the dates from {@code from}, inclusive, to
+     * {@code to}, exclusive, optionally for one category. Days without expenses are not returned.
+     */
+    public List<DailyTotalDTO> sumByDay(long tenantId, LocalDate from, LocalDate to, Long categoryId) {
+        lock.readLock().lock();
+        try {
+            Partition partition = partitions.get(tenantId);
+            return partition != null ? partition.sumByDay(from, to, categoryId) : List.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sums a tenant's spending per distinct description over the dates from {@code from},
+     * inclusive, to {@code to}, exclusive. Rows are grouped by their dictionary code, so
+     * no strings are compared during the scan, and only the highest totals are kept
+     * rather than sorting all of them.
+     * @return up to limit descriptions, highest spending first
+     */
+    public List<DescriptionTotalDTO> topDescriptions(long tenantId, LocalDate from, LocalDate to, int limit) {
+        lock.readLock().lock();
+        try {
+            Partition partition = partitions.get(tenantId);
+            return partition != null ? partition.topDescriptions(from, to, limit) : List.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of expenses in the store, across all tenants.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return partitions.values().stream().mapToInt(partition -> partition.size - partition.deleted).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static BigDecimal toAmount(long cents) {
+        return new Money(cents).toBigDecimal();
+    }
+
+    private Partition partition(long tenantId) {
+        return partitions.computeIfAbsent(tenantId, id -> new Partition());
+    }
+
+    /**
+     * One expense as captured from an entity or DTO, before it is encoded into the columns.
+     */
+    private record Row(long id, LocalDate date, Long categoryId, long cents, String description) {}
+
+    private record TenantRow(long tenantId, Row row) {}
+
+    /**
+     * The columns and dictionaries of one tenant's expenses. Guarded by the store's lock.
+     */
+    private static final class Partition {
+
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private int[] days = new int[INITIAL_CAPACITY];
+        private int[] categories = new int[INITIAL_CAPACITY]; // DELETED for removed rows
+        private long[] cents = new long[INITIAL_CAPACITY];
+        private int[] descriptions = new int[INITIAL_CAPACITY];
+        private int size;
+        private int deleted;
+        private RowIndex rowsById = new RowIndex(INITIAL_CAPACITY);
+
+        private final Map<Long, Integer> categoryIndexes = new HashMap<>();
+        private final List<Long> categoryIds = new ArrayList<>();
+        private final Map<String, Integer> descriptionCodes = new HashMap<>();
+        private final List<String> descriptionValues = new ArrayList<>();
+
+        List<CategoryTotalDTO> sumByCategory(LocalDate from, LocalDate to) {
+            int fromDay = (int) from.toEpochDay();
+            int toDay = (int) to.toEpochDay();
+
+            long[] totals = new long[categoryIds.size()];
+            int[] counts = new int[categoryIds.size()];
+            for (int row = 0; row < size; row++) {
+                int day = days[row];
+                int category = categories[row];
+                if (day >= fromDay && day < toDay && category != DELETED) {
+                    totals[category] += cents[row];
+                    counts[category]++;
+                }
+            }
+
+            List<CategoryTotalDTO> result = new ArrayList<>();
+            for (int category = 0; category < totals.length; category++) {
+                if (counts[category] > 0) {
+                    result.add(new CategoryTotalDTO(categoryIds.get(category), toAmount(totals[category])));
+                }
+            }
+            return result;
+        }
+
+        List<DailyTotalDTO> sumByDay(LocalDate from, LocalDate to, Long categoryId) {
+            int fromDay = (int) from.toEpochDay();
+            int toDay = (int) to.toEpochDay();
+
+            Integer only = categoryId != null ? categoryIndexes.get(categoryId) : null;
+            if (categoryId != null && only == null) {
+                return List.of();
+            }
+            int onlyCategory = only != null ? only : DELETED;
+
+            long[] totals = new long[Math.max(0, toDay - fromDay)];
+            int[] counts = new int[totals.length];
+            for (int row = 0; row < size; row++) {
+                int day = days[row];
+                int category = categories[row];
+                if (day >= fromDay && day < toDay && category != DELETED
+                        && (onlyCategory == DELETED || category == onlyCategory)) {
+                    totals[day - fromDay] += cents[row];
+                    counts[day - fromDay]++;
+                }
+            }
+
+            List<DailyTotalDTO> result = new ArrayList<>();
+            for (int day = 0; day < totals.length; day++) {
+                if (counts[day] > 0) {
+                    result.add(new DailyTotalDTO(LocalDate.ofEpochDay(fromDay + day), toAmount(totals[day]), (long) counts[day]));
+                }
+            }
+            return result;
+        }
+
+        List<DescriptionTotalDTO> topDescriptions(LocalDate from, LocalDate to, int limit) {
+            int fromDay = (int) from.toEpochDay();
+            int toDay = (int) to.toEpochDay();
+
+            // Only descriptions that occur in the range get a slot, however large the dictionary
+            RowIndex slotsByCode = new RowIndex(INITIAL_CAPACITY);
+            int[] codes = new int[INITIAL_CAPACITY];
+            long[] totals = new long[INITIAL_CAPACITY];
+            int[] counts = new int[INITIAL_CAPACITY];
+            int used = 0;
+            for (int row = 0; row < size; row++) {
+                int day = days[row];
+                if (day >= fromDay && day < toDay && categories[row] != DELETED) {
+                    int slot = slotsByCode.get(descriptions[row]);
+                    if (slot < 0) {
+                        if (used == codes.length) {
+                            codes = Arrays.copyOf(codes, used * 2);
+                            totals = Arrays.copyOf(totals, used * 2);
+                            counts = Arrays.copyOf(counts, used * 2);
+                        }
+                        slot = used++;
+                        codes[slot] = descriptions[row];
+                        slotsByCode.put(descriptions[row], slot);
+                    }
+                    totals[slot] += cents[row];
+                    counts[slot]++;
+                }
+            }
+
+            // Min-heap of the limit highest totals; on equal totals the earlier description ranks higher
+            long[] spent = totals;
+            int[] code = codes;
+            Comparator<Integer> lowestFirst = Comparator.<Integer>comparingLong(slot -> spent[slot])
+                    .thenComparing(slot -> code[slot], Comparator.reverseOrder());
+            PriorityQueue<Integer> top = new PriorityQueue<>(lowestFirst);
+            for (int slot = 0; slot < used && limit > 0; slot++) {
+                if (top.size() < limit) {
+                    top.add(slot);
+                } else if (lowestFirst.compare(slot, top.peek()) > 0) {
+                    top.poll();
+                    top.add(slot);
+                }
+            }
+
+            DescriptionTotalDTO[] result = new DescriptionTotalDTO[top.size()];
+            for (int i = result.length - 1; i >= 0; i--) {
+                int slot = top.poll();
+                result[i] = new DescriptionTotalDTO(descriptionValues.get(codes[slot]), toAmount(totals[slot]),
+                        (long) counts[slot]);
+            }
+            return List.of(result);
+        }
+
+        void moveCategory(Long fromCategoryId, Long toCategoryId) {
+            Integer from = categoryIndexes.get(fromCategoryId);
+            if (from == null) {
+                return;
+            }
+            int to = categoryIndex(toCategoryId);
+            for (int row = 0; row < size; row++) {
+                if (categories[row] == from) {
+                    categories[row] = to;
+                }
+            }
+        }
+
+        void append(Row row) {
+            if (size == ids.length) {
+                grow(size * 2);
+            }
+            ids[size] = row.id();
+            days[size] = (int) row.date().toEpochDay();
+            categories[size] = categoryIndex(row.categoryId());
+            cents[size] = row.cents();
+            descriptions[size] = descriptionCode(row.description());
+            rowsById.put(row.id(), size);
+            size++;
+        }
+
+        void delete(long id) {
+            int row = rowsById.remove(id);
+            if (row >= 0) {
+                categories[row] = DELETED;
+                deleted++;
+            }
+        }
+
+        void deleteMatching(Long categoryId, LocalDate from, LocalDate to) {
+            int onlyCategory = DELETED;
+            if (categoryId != null) {
+                Integer index = categoryIndexes.get(categoryId);
+                if (index == null) {
+                    return;
+                }
+                onlyCategory = index;
+            }
+            int fromDay = from != null ? (int) from.toEpochDay() : Integer.MIN_VALUE;
+            int toDay = to != null ? (int) to.toEpochDay() : Integer.MAX_VALUE;
+            for (int row = 0; row < size; row++) {
+                int day = days[row];
+                int category = categories[row];
+                if (day >= fromDay && day <= toDay && category != DELETED
+                        && (onlyCategory == DELETED || category == onlyCategory)) {
+                    rowsById.remove(ids[row]);
+                    categories[row] = DELETED;
+                    deleted++;
+                }
+            }
+        }
+
+        /**
+         * Drops deleted rows once they make up half of the partition, along with
+         * descriptions only they used.
+         */
+        void compactIfSparse() {
+            if (deleted < INITIAL_CAPACITY || deleted * 2 < size) {
+                return;
+            }
+            List<String> previousDescriptions = List.copyOf(descriptionValues);
+            descriptionCodes.clear();
+            descriptionValues.clear();
+            int live = 0;
+            rowsById = new RowIndex(size - deleted);
+            for (int row = 0; row < size; row++) {
+                if (categories[row] == DELETED) {
+                    continue;
+                }
+                ids[live] = ids[row];
+                days[live] = days[row];
+                categories[live] = categories[row];
+                cents[live] = cents[row];
+                descriptions[live] = descriptionCode(previousDescriptions.get(descriptions[row]));
+                rowsById.put(ids[live], live);
+                live++;
+            }
+            size = live;
+            deleted = 0;
+            grow(Math.max(INITIAL_CAPACITY, live * 2));
+        }
+
+        private void grow(int capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            days = Arrays.copyOf(days, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            cents = Arrays.copyOf(cents, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+        }
+
+        private int categoryIndex(Long categoryId) {
+            return categoryIndexes.computeIfAbsent(categoryId, id -> {
+                categoryIds.add(id);
+                return categoryIds.size() - 1;
+            });
+        }
+
+        private int descriptionCode(String description) {
+            String value = description != null ? description : "";
+            return descriptionCodes.computeIfAbsent(value, key -> {
+                descriptionValues.add(key);
+                return descriptionValues.size() - 1;
+            });
+        }
+    }
+
+    /**
+     * Open-addressing map from a long key, such as an expense ID, to an int, such as a
+     * row number, with no boxing. Deletion shifts later entries of the probe sequence
+     * back instead of leaving tombstones.
+     */
+    private static final class RowIndex {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+        private int[] values;
+        private int size;
+
+        RowIndex(int expectedSize) {
+            allocate(Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1);
+        }
+
+        int get(long key) {
+            for (int slot = slot(key); ; slot = next(slot)) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+                if (keys[slot] == EMPTY) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int slot = slot(key);
+            while (keys[slot] != EMPTY && keys[slot] != key) {
+                slot = next(slot);
+            }
+            if (keys[slot] == EMPTY) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        /**
+         * @return the removed row, or -1 if the key was absent
+         */
+        int remove(long key) {
+            int slot = slot(key);
+            while (keys[slot] != key) {
+                if (keys[slot] == EMPTY) {
+                    return -1;
+                }
+                slot = next(slot);
+            }
+            int value = values[slot];
+
+            int gap = slot;
+            for (int i = next(gap); keys[i] != EMPTY; i = next(i)) {
+                int home = slot(keys[i]);
+                boolean reachableWithoutGap = gap <= i ? gap < home && home <= i : gap < home || home <= i;
+                if (!reachableWithoutGap) {
+                    keys[gap] = keys[i];
+                    values[gap] = values[i];
+                    gap = i;
+                }
+            }
+            keys[gap] = EMPTY;
+            size--;
+            return value;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            allocate(keys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            values = new int[capacity];
+            size = 0;
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & (keys.length - 1);
+        }
+
+        private int next(int slot) {
+            return (slot + 1) & (keys.length - 1);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.budget.service;
+
+import com.budget.dto.ExpenseDTO;
+import com.budget.model.Expense;
+import com.budget.repository.ExpenseRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+/**
+ * Writes a tenant's full expense history to an output stream one row at a time. The
+ * tenant is passed in rather than read from the current thread, since the response is
+ * written after the request thread has moved on.
+ * Each expense is detached once written, so memory use does not grow with the history.
+ */
+@Service
+public class ExpenseExportService {
+
+    private final ExpenseRepository expenseRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public ExpenseExportService(ExpenseRepository expenseRepository,
+                                EntityManager entityManager,
+                                ObjectMapper objectMapper) {
+        this.expenseRepository = expenseRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes every expense of a tenant as one JSON object per line.
+     */
+    @Transactional(readOnly = true)
+    public void writeNdjson(long tenantId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ObjectWriter jsonWriter = objectMapper.writer().withoutFeatures(
+                JsonGenerator.Feature.AUTO_CLOSE_TARGET,
+                JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM
+        );
+        try (Stream<Expense> expenses = expenseRepository.streamAll(tenantId)) {
+            expenses.forEach(expense -> {
+                try {
+                    jsonWriter.writeValue(writer, ExpenseDTO.from(expense));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                entityManager.detach(expense);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes every expense of a tenant as a CSV row, preceded by a header row.
+     */
+    @Transactional(readOnly = true)
+    public void writeCsv(long tenantId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,date,amount,description,categoryId,categoryName\n");
+        try (Stream<Expense> expenses = expenseRepository.streamAll(tenantId)) {
+            expenses.forEach(expense -> {
+                try {
+                    writer.write(expense.getId() + ","
+                            + expense.getDate() + ","
+                            + expense.getAmount().toPlainString() + ","
+                            + csvField(expense.getDescription()) + ","
+                            + expense.getCategory().getId() + ","
+                            + csvField(expense.getCategory().getName()) + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                entityManager.detach(expense);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Quotes a CSV field when it contains a separator, quote or line break.
+     */
+    private String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
@@ -0,0 +1,260 @@
+package com.budget.service;
+
+import com.budget.config.TenantContext;
+import com.budget.model.Category;
+import com.budget.model.Expense;
+import com.budget.repository.CategoryRepository;
+import com.budget.repository.ExpenseRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports expenses from CSV files of (date, amount, description, category name) rows.
+ * Files are read one line at a time and persisted in fixed-size chunks, each committed
+ * in its own transaction, so memory stays bounded regardless of file size. Imports run
+ * on a single background thread with a bounded queue of waiting jobs. Finished jobs
+ * stay available to pollers for budget.import.job-retention, after which they are
+ * forgotten.
+ */
+@Service
+public class ExpenseImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpenseImportService.class);
+
+    private final ExpenseRepository expenseRepository;
+    private final CategoryRepository categoryRepository;
+    private final RollupService rollupService;
+    private final ExpenseSearchService expenseSearchService;
+    private final ExpenseColumnStore expenseColumnStore;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ExecutorService executor;
+    private final Cache<String, ImportJob> jobs;
+
+    public ExpenseImportService(ExpenseRepository expenseRepository,
+                                CategoryRepository categoryRepository,
+                                RollupService rollupService,
+                                ExpenseSearchService expenseSearchService,
+                                ExpenseColumnStore expenseColumnStore,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${budget.import.chunk-size:1000}") int chunkSize,
+                                @Value("${budget.import.queue-capacity:4}") int queueCapacity,
+                                @Value("${budget.import.job-retention:1h}") Duration jobRetention,
+                                @Value("${budget.import.max-jobs:1000}") int maxJobs) {
+        this.expenseRepository = expenseRepository;
+        this.categoryRepository = categoryRepository;
+        this.rollupService = rollupService;
+        this.expenseSearchService = expenseSearchService;
+        this.expenseColumnStore = expenseColumnStore;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity));
+        // Running and queued jobs are at most 1 + queueCapacity, far below maxJobs, so
+        // the size bound only ever drops finished jobs
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(new FinishedJobExpiry(jobRetention))
+                .maximumSize(maxJobs)
+                .build();
+    }
+
+    /**
+     * Queues an import of the uploaded file into the current tenant.
+     * @throws RejectedExecutionException if too many imports are already waiting
+     */
+    public ImportJob start(MultipartFile file) throws IOException {
+        // The upload is only guaranteed to exist for the duration of the request
+        Path upload = Files.createTempFile("expense-import-", ".csv");
+        file.transferTo(upload);
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), TenantContext.current());
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(TenantContext.wrap(() -> run(job, upload)));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.getId());
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * Returns one of the current tenant's import jobs by ID.
+     */
+    public Optional<ImportJob> getJob(String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id))
+                .filter(job -> job.getTenantId() == TenantContext.current());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ImportJob job, Path upload) {
+        job.start();
+        Map<String, Optional<Category>> categoriesByName = new HashMap<>();
+        List<Expense> chunk = new ArrayList<>(chunkSize);
+
+        try (BufferedReader reader = Files.newBufferedReader(upload, StandardCharsets.UTF_8)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.toLowerCase().startsWith("date,"))) {
+                    continue;
+                }
+
+                List<String> fields = parseCsvLine(line);
+                if (fields.size() != 4) {
+                    job.rejected(lineNumber, "expected 4 fields but found " + fields.size());
+                    continue;
+                }
+
+                LocalDate date;
+                BigDecimal amount;
+                try {
+                    date = LocalDate.parse(fields.get(0).trim());
+                    amount = new BigDecimal(fields.get(1).trim());
+                } catch (DateTimeParseException | NumberFormatException e) {
+                    job.rejected(lineNumber, "invalid date or amount");
+                    continue;
+                }
+
+                String categoryName = fields.get(3).trim();
+                Optional<Category> category = categoriesByName.computeIfAbsent(
+                        categoryName, name -> categoryRepository.findByTenantIdAndName(job.getTenantId(), name));
+                if (category.isEmpty()) {
+                    job.rejected(lineNumber, "category not found: " + categoryName);
+                    continue;
+                }
+
+                chunk.add(new Expense(amount, fields.get(2), date, category.get()));
+                if (chunk.size() == chunkSize) {
+                    persist(job, chunk);
+                }
+            }
+            persist(job, chunk);
+            job.finish("completed");
+        } catch (Exception e) {
+            log.error("Import {} failed", job.getId(), e);
+            job.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            // Starts the retention period, now that the job has finished
+            jobs.put(job.getId(), job);
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException ignored) {
+                // Temp files are cleaned up by the OS eventually
+            }
+        }
+    }
+
+    /**
+     * Saves and commits a chunk, then empties it. Committing ends the persistence
+     * context, so no entities from earlier chunks stay managed.
+     */
+    private void persist(ImportJob job, List<Expense> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Expense> saved = expenseRepository.saveAll(chunk);
+            rollupService.addAll(saved);
+            expenseSearchService.indexAll(saved);
+            expenseColumnStore.putAll(saved);
+        });
+        job.imported(chunk.size());
+        chunk.clear();
+    }
+
+    /**
+     * Keeps queued and running jobs until they finish, however long that takes, and
+     * finished jobs for the retention period from when they were stored finished.
+     */
+    private static final class FinishedJobExpiry implements Expiry<String, ImportJob> {
+
+        private final long retentionNanos;
+
+        FinishedJobExpiry(Duration retention) {
+            this.retentionNanos = retention.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String id, ImportJob job, long currentTime) {
+            return job.isFinished() ? retentionNanos : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, ImportJob job, long currentTime, long currentDuration) {
+            return job.isFinished() ? retentionNanos : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterRead(String id, ImportJob job, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Splits a CSV line into fields, honouring double-quoted fields and doubled quotes.
+     */
+    private List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
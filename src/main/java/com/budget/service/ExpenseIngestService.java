@@ -0,0 +1,244 @@
+package com.budget.service;
+
+import com.budget.model.Expense;
+import com.budget.repository.ExpenseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Creates single expenses through group commit, for clients that post expenses one at
+ * a time at high rates. Callers hand their expense to a bounded queue and wait; one
+ * writer thread takes whatever has queued up, to at most budget.ingest.group-size
+ * expenses or budget.ingest.max-delay after the first, and saves the whole group in
+ * one transaction, so many callers share one commit and one batched insert. Each
+ * caller returns once the transaction holding its expense has committed.
+ * <p>
+ * Turned off by default, in which case callers use ExpenseService directly. A full
+ * queue rejects new expenses instead of letting waiting requests pile up, and a caller
+ * waits at most budget.ingest.timeout for its commit. Whatever goes wrong in a commit,
+ * the writer fails that group's callers and carries on; if the writer stops, every
+ * expense still queued is failed.
+ */
+@Service
+public class ExpenseIngestService {
+
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseService expenseService;
+    private final RollupService rollupService;
+    private final ExpenseSearchService expenseSearchService;
+    private final ExpenseColumnStore expenseColumnStore;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int groupSize;
+    private final long maxDelayNanos;
+    private final Duration timeout;
+    private final BlockingQueue<Pending> queue;
+    private volatile boolean running;
+    private Thread writer;
+
+    public ExpenseIngestService(ExpenseRepository expenseRepository,
+                                ExpenseService expenseService,
+                                RollupService rollupService,
+                                ExpenseSearchService expenseSearchService,
+                                ExpenseColumnStore expenseColumnStore,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${budget.ingest.enabled:false}") boolean enabled,
+                                @Value("${budget.ingest.queue-capacity:4096}") int queueCapacity,
+                                @Value("${budget.ingest.group-size:256}") int groupSize,
+                                @Value("${budget.ingest.max-delay:2ms}") Duration maxDelay,
+                                @Value("${budget.ingest.timeout:10s}") Duration timeout) {
+        this.expenseRepository = expenseRepository;
+        this.expenseService = expenseService;
+        this.rollupService = rollupService;
+        this.expenseSearchService = expenseSearchService;
+        this.expenseColumnStore = expenseColumnStore;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.groupSize = groupSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.timeout = timeout;
+        // A fixed array used as a ring, so the queue allocates nothing per expense
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("expense-ingest").daemon().start(this::writeGroups);
+    }
+
+    /**
+     * Stops taking expenses and lets the writer commit everything already queued. A
+     * writer still busy after 30 seconds is interrupted, and whatever it has not
+     * committed is failed.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (writer.isAlive()) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        failQueued();
+    }
+
+    /**
+     * Queues a new expense for the next group commit and waits until it is committed.
+     * The expense's category must already be resolved for the current tenant.
+     * @throws RejectedExecutionException if the queue is full or ingestion has stopped
+     * @throws TimeoutException if the expense was not committed within budget.ingest.timeout;
+     *         it may still be committed if it had already left the queue
+     */
+    public Expense create(Expense expense) throws TimeoutException {
+        if (!running) {
+            throw new RejectedExecutionException("Expense ingestion is not running");
+        }
+        Pending pending = new Pending(expense, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            throw new RejectedExecutionException("Expense ingestion queue is full");
+        }
+        if (!running && queue.remove(pending)) {
+            // Stopped while offering; the writer may already have failed what was queued
+            throw new RejectedExecutionException("Expense ingestion is not running");
+        }
+        try {
+            return pending.result().get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            queue.remove(pending);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Expense could not be committed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queue.remove(pending);
+            throw new CancellationException("Interrupted while waiting for the expense to be committed");
+        }
+    }
+
+    /**
+     * Writer loop: waits for a first expense, gathers a group behind it and commits it.
+     * On the way out, for whatever reason, fails the group in hand and everything queued.
+     */
+    private void writeGroups() {
+        List<Pending> group = new ArrayList<>(groupSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                fill(group);
+                commit(group);
+                group.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running = false;
+            group.forEach(pending -> pending.result().completeExceptionally(stopped()));
+            failQueued();
+        }
+    }
+
+    /**
+     * Adds queued expenses to the group until it is full or the maximum delay since
+     * its first expense has passed. Expenses already waiting are taken without blocking.
+     */
+    private void fill(List<Pending> group) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (group.size() < groupSize) {
+            if (queue.drainTo(group, groupSize - group.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+        }
+    }
+
+    /**
+     * Saves a group in one transaction and then releases its callers. If the group
+     * fails with an exception, its expenses are retried one transaction each, so one
+     * bad expense only fails its own caller; on an error the whole group is failed.
+     */
+    private void commit(List<Pending> group) {
+        List<Expense> expenses = group.stream().map(Pending::expense).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Expense> saved = expenseRepository.saveAll(expenses);
+                rollupService.addAll(saved);
+                expenseSearchService.indexAll(saved);
+                expenseColumnStore.putAll(saved);
+            });
+        } catch (RuntimeException e) {
+            group.forEach(this::commitAlone);
+            return;
+        } catch (Throwable e) {
+            group.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        }
+        group.forEach(pending -> pending.result().complete(pending.expense()));
+    }
+
+    private void commitAlone(Pending pending) {
+        // The failed group may have assigned an ID that was never committed
+        pending.expense().setId(null);
+        try {
+            pending.result().complete(expenseService.create(pending.expense()));
+        } catch (Throwable e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+
+    private void failQueued() {
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(stopped());
+        }
+    }
+
+    private static RejectedExecutionException stopped() {
+        return new RejectedExecutionException("Expense ingestion stopped");
+    }
+
+    /**
+     * An expense waiting to be committed, and the caller's handle on the outcome.
+     */
+    private record Pending(Expense expense, CompletableFuture<Expense> result) {}
+}
@@ -0,0 +1,79 @@
+package com.budget.service;
+
+import com.budget.config.TenantContext;
+import com.budget.dto.ExpenseDTO;
+import com.budget.repository.ExpenseRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Expense read paths, each scoped to the current tenant. Each runs in a read-only
+ * transaction, so Hibernate skips flushing and keeps no dirty-checking snapshots for
+ * anything it loads.
+ */
+@Service
+public class ExpenseQueryService {
+
+    private final ExpenseRepository expenseRepository;
+
+    public ExpenseQueryService(ExpenseRepository expenseRepository) {
+        this.expenseRepository = expenseRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ExpenseDTO> findAll() {
+        return expenseRepository.findAllDTOs(TenantContext.current());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ExpenseDTO> findByMonth(YearMonth month) {
+        return expenseRepository.findDTOsByMonth(TenantContext.current(), month.getYear(), month.getMonthValue());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ExpenseDTO> findById(Long id) {
+        return expenseRepository.findDTOById(TenantContext.current(), id);
+    }
+
+    /**
+     * Returns up to limit expenses, newest first.
+     */
+    @Transactional(readOnly = true)
+    public List<ExpenseDTO> findFirstPage(int limit) {
+        return expenseRepository.findFirstPage(TenantContext.current(), Limit.of(limit));
+    }
+
+    /**
+     * Returns up to limit expenses that sort after the given date and ID, newest first.
+     */
+    @Transactional(readOnly = true)
+    public List<ExpenseDTO> findPageAfter(LocalDate date, Long id, int limit) {
+        return expenseRepository.findPageAfter(TenantContext.current(), date, id, Limit.of(limit));
+    }
+
+    /**
+     * Returns expenses by ID in the order the IDs are given, skipping any that no longer exist.
+     */
+    @Transactional(readOnly = true)
+    public List<ExpenseDTO> findAllByIdInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ExpenseDTO> expenses = expenseRepository.findDTOsByIds(TenantContext.current(), ids).stream()
+                .collect(Collectors.toMap(ExpenseDTO::id, Function.identity()));
+        return ids.stream()
+                .map(expenses::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+}
@@ -0,0 +1,388 @@
+package com.budget.service;
+
+import com.budget.config.TenantContext;
+import com.budget.dto.ExpenseRowDTO;
+import com.budget.model.Expense;
+import com.budget.repository.ExpenseRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over expense descriptions. Each lowercase word maps to a
+ * sorted array of the IDs of expenses whose description contains it; words are kept in
+ * sorted order so a prefix query is a range of the map. Each tenant has its own
+ * postings, so searches only touch the searching tenant's words. The index is built
+ * from the database at startup and then kept current by the write paths, which report
+ * each change here; changes are applied once their transaction commits.
+ */
+@Service
+public class ExpenseSearchService {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ExpenseRepository expenseRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, TenantIndex> indexes = new HashMap<>();
+
+    public ExpenseSearchService(ExpenseRepository expenseRepository) {
+        this.expenseRepository = expenseRepository;
+    }
+
+    /**
+     * Rebuilds the index from the expenses table. Searches and index updates wait
+     * until the rebuild finishes.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            indexes.clear();
+            try (Stream<ExpenseRowDTO> all = expenseRepository.streamAllRows()) {
+                all.forEach(expense -> tenantIndex(expense.tenantId()).add(new IndexedExpense(
+                        expense.id(), expense.categoryId(), expense.date(), wordArray(expense.description()))));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a created or updated expense to the index, replacing any previous entry.
+     */
+    public void index(Expense expense) {
+        indexAll(List.of(expense));
+    }
+
+    /**
+     * Adds created or updated expenses to the index, replacing any previous entries.
+     */
+    public void indexAll(Collection<Expense> changed) {
+        // Copy now; the entities may be detached or modified before the commit
+        List<TenantEntry> entries = changed.stream()
+                .map(expense -> new TenantEntry(expense.getTenantId(), new IndexedExpense(
+                        expense.getId(),
+                        expense.getCategory().getId(),
+                        expense.getDate(),
+                        wordArray(expense.getDescription()))))
+                .toList();
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                entries.forEach(entry -> {
+                    TenantIndex index = tenantIndex(entry.tenantId());
+                    index.remove(entry.expense().id());
+                    index.add(entry.expense());
+                });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes deleted expenses of one tenant from the index.
+     */
+    public void removeAll(long tenantId, Collection<Long> ids) {
+        List<Long> removed = List.copyOf(ids);
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                TenantIndex index = indexes.get(tenantId);
+                if (index != null) {
+                    removed.forEach(index::remove);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Removes a tenant's expenses matching every given filter from the index, for a
+     * bulk delete by the same filter; null filters match everything.
+     * @param to optional last date, inclusive
+     */
+    public void removeMatching(long tenantId, Long categoryId, LocalDate from, LocalDate to) {
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                TenantIndex index = indexes.get(tenantId);
+                if (index == null) {
+                    return;
+                }
+                List<Long> removed = new ArrayList<>();
+                for (IndexedExpense expense : index.expenses.values()) {
+                    if ((categoryId == null || expense.categoryId() == categoryId)
+                            && (from == null || !expense.date().isBefore(from))
+                            && (to == null || !expense.date().isAfter(to))) {
+                        removed.add(expense.id());
+                    }
+                }
+                removed.forEach(index::remove);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Reassigns every indexed expense in one of a tenant's categories to another.
+     */
+    public void moveCategory(long tenantId, Long fromCategoryId, Long toCategoryId) {
+        Transactions.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                TenantIndex index = indexes.get(tenantId);
+                if (index == null) {
+                    return;
+                }
+                index.expenses.replaceAll((id, expense) -> expense.categoryId() == fromCategoryId
+                        ? new IndexedExpense(id, toCategoryId, expense.date(), expense.words())
+                        : expense);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Finds the current tenant's expenses whose description contains a word starting with
+     * every word of the query.
+     * Results are ranked by how many query words match a description word exactly, then
+     * by date and ID, newest first.
+     * @param categoryId optional category to restrict results to
+     * @param from optional first date, inclusive
+     * @param to optional last date, inclusive
+     * @return up to limit expense IDs, best match first
+     */
+    public List<Long> search(String query, Long categoryId, LocalDate from, LocalDate to, int limit) {
+        Set<String> terms = words(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            TenantIndex index = indexes.get(TenantContext.current());
+            if (index == null) {
+                return List.of();
+            }
+            long[] matches = null;
+            for (String term : terms) {
+                long[] termMatches = index.matchPrefix(term);
+                matches = matches == null ? termMatches : intersect(matches, termMatches);
+                if (matches.length == 0) {
+                    return List.of();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>();
+            for (long id : matches) {
+                IndexedExpense expense = index.expenses.get(id);
+                if ((categoryId != null && expense.categoryId() != categoryId)
+                        || (from != null && expense.date().isBefore(from))
+                        || (to != null && expense.date().isAfter(to))) {
+                    continue;
+                }
+                int exactMatches = 0;
+                for (String term : terms) {
+                    PostingList exact = index.postings.get(term);
+                    if (exact != null && exact.contains(id)) {
+                        exactMatches++;
+                    }
+                }
+                hits.add(new Hit(id, exactMatches, expense.date()));
+            }
+
+            return hits.stream()
+                    .sorted(Comparator.comparingInt(Hit::exactMatches)
+                            .thenComparing(Hit::date)
+                            .thenComparingLong(Hit::id)
+                            .reversed())
+                    .limit(limit)
+                    .map(Hit::id)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into distinct lowercase words.
+     */
+    static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        if (text != null) {
+            for (String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+                if (!word.isEmpty()) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    private static String[] wordArray(String text) {
+        return words(text).toArray(String[]::new);
+    }
+
+    private TenantIndex tenantIndex(long tenantId) {
+        return indexes.computeIfAbsent(tenantId, id -> new TenantIndex());
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    /**
+     * What the index keeps per expense: enough to filter results and to remove the
+     * expense's words when it changes.
+     */
+    private record IndexedExpense(long id, long categoryId, LocalDate date, String[] words) {}
+
+    private record TenantEntry(long tenantId, IndexedExpense expense) {}
+
+    private record Hit(long id, int exactMatches, LocalDate date) {}
+
+    /**
+     * Postings and indexed expenses of one tenant. Guarded by the service's lock.
+     */
+    private static final class TenantIndex {
+
+        private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+        private final Map<Long, IndexedExpense> expenses = new HashMap<>();
+
+        void add(IndexedExpense expense) {
+            expenses.put(expense.id(), expense);
+            for (String word : expense.words()) {
+                postings.computeIfAbsent(word, key -> new PostingList()).add(expense.id());
+            }
+        }
+
+        void remove(long id) {
+            IndexedExpense previous = expenses.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String word : previous.words()) {
+                PostingList list = postings.get(word);
+                if (list != null && list.remove(id) && list.isEmpty()) {
+                    postings.remove(word);
+                }
+            }
+        }
+
+        /**
+         * Returns the sorted IDs of expenses with any word starting with the prefix.
+         */
+        long[] matchPrefix(String prefix) {
+            Collection<PostingList> lists = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+            if (lists.size() == 1) {
+                return lists.iterator().next().toArray();
+            }
+
+            int total = 0;
+            for (PostingList list : lists) {
+                total += list.size;
+            }
+            long[] ids = new long[total];
+            int offset = 0;
+            for (PostingList list : lists) {
+                System.arraycopy(list.ids, 0, ids, offset, list.size);
+                offset += list.size;
+            }
+            Arrays.sort(ids);
+
+            // An expense can have several words with the same prefix
+            int unique = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (i == 0 || ids[i] != ids[i - 1]) {
+                    ids[unique++] = ids[i];
+                }
+            }
+            return Arrays.copyOf(ids, unique);
+        }
+    }
+
+    /**
+     * Sorted, growable array of expense IDs. IDs come from a sequence, so new
+     * expenses are almost always appended at the end.
+     */
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
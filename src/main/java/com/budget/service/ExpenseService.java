@@ -0,0 +1,96 @@
+package com.budget.service;
+
+import com.budget.config.TenantContext;
+import com.budget.model.Expense;
+import com.budget.repository.ExpenseRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Single-expense write operations for the current tenant, whose category the caller
+ * has already resolved. Each runs in one transaction together with
+ * the matching update to the monthly category rollup, and is reported to the
+ * search index and the column store.
+ */
+@Service
+public class ExpenseService {
+
+    private final ExpenseRepository expenseRepository;
+    private final RollupService rollupService;
+    private final DataVersionService dataVersionService;
+    private final ExpenseSearchService expenseSearchService;
+    private final ExpenseColumnStore expenseColumnStore;
+
+    public ExpenseService(ExpenseRepository expenseRepository,
+                          RollupService rollupService,
+                          DataVersionService dataVersionService,
+                          ExpenseSearchService expenseSearchService,
+                          ExpenseColumnStore expenseColumnStore) {
+        this.expenseRepository = expenseRepository;
+        this.rollupService = rollupService;
+        this.dataVersionService = dataVersionService;
+        this.expenseSearchService = expenseSearchService;
+        this.expenseColumnStore = expenseColumnStore;
+    }
+
+    /**
+     * Saves a new expense.
+     */
+    @Transactional
+    public Expense create(Expense expense) {
+        Expense saved = expenseRepository.save(expense);
+        rollupService.add(saved);
+        expenseSearchService.index(saved);
+        expenseColumnStore.put(saved);
+        return saved;
+    }
+
+    /**
+     * Applies changes to an existing expense and saves it. The category is fetched
+     * with the expense so the result can be mapped after the transaction ends.
+     * @return empty if no expense has the given ID
+     */
+    @Transactional
+    public Optional<Expense> update(Long id, Consumer<Expense> changes) {
+        return expenseRepository.findWithCategoryById(TenantContext.current(), id)
+                .map(expense -> {
+                    Long previousCategoryId = expense.getCategory().getId();
+                    LocalDate previousDate = expense.getDate();
+                    BigDecimal previousAmount = expense.getAmount();
+
+                    changes.accept(expense);
+                    Expense saved = expenseRepository.save(expense);
+                    rollupService.replace(previousCategoryId, previousDate, previousAmount, saved);
+                    // Edits that leave the totals unchanged still change the month's expense list
+                    dataVersionService.expensesChanged(saved.getTenantId(), YearMonth.from(previousDate));
+                    dataVersionService.expensesChanged(saved.getTenantId(), YearMonth.from(saved.getDate()));
+                    expenseSearchService.index(saved);
+                    expenseColumnStore.put(saved);
+                    return saved;
+                });
+    }
+
+    /**
+     * Deletes an expense by ID.
+     * @return false if no expense has the given ID
+     */
+    @Transactional
+    public boolean delete(Long id) {
+        return expenseRepository.findByIdAndTenantId(id, TenantContext.current())
+                .map(expense -> {
+                    expenseRepository.delete(expense);
+                    rollupService.remove(expense);
+                    expenseSearchService.removeAll(expense.getTenantId(), List.of(expense.getId()));
+                    expenseColumnStore.removeAll(expense.getTenantId(), List.of(expense.getId()));
+                    return true;
+                })
+                .orElse(false);
+    }
+}
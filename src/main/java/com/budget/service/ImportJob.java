@@ -0,0 +1,92 @@
+package com.budget.service;
+
+import com.budget.dto.ImportJobDTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a single CSV import. Counters are updated by the import thread
+ * and read by pollers, so they are kept in atomics.
+ */
+public class ImportJob {
+
+    /** Only the first rejected rows are kept to bound memory for very bad files. */
+    private static final int MAX_ERRORS = 100;
+
+    private final String id;
+    private final long tenantId;
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+    private volatile String status = "queued";
+    private volatile long startedAt;
+    private volatile long finishedAt;
+
+    public ImportJob(String id, long tenantId) {
+        this.id = id;
+        this.tenantId = tenantId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getTenantId() {
+        return tenantId;
+    }
+
+    void start() {
+        startedAt = System.nanoTime();
+        status = "running";
+    }
+
+    void finish(String status) {
+        finishedAt = System.nanoTime();
+        this.status = status;
+    }
+
+    /**
+     * Marks the job failed, recording the reason after any rejected rows.
+     */
+    void fail(String message) {
+        synchronized (errors) {
+            errors.add("import failed: " + message);
+        }
+        finish("failed");
+    }
+
+    boolean isFinished() {
+        return finishedAt != 0;
+    }
+
+    void imported(int rows) {
+        rowsImported.addAndGet(rows);
+    }
+
+    void rejected(long lineNumber, String message) {
+        rowsRejected.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add("line " + lineNumber + ": " + message);
+            }
+        }
+    }
+
+    /**
+     * Returns a snapshot of the job's progress.
+     */
+    public ImportJobDTO toDTO() {
+        long imported = rowsImported.get();
+        long end = finishedAt != 0 ? finishedAt : System.nanoTime();
+        double seconds = startedAt != 0 ? (end - startedAt) / 1_000_000_000.0 : 0.0;
+        double rowsPerSecond = seconds > 0 ? imported / seconds : 0.0;
+
+        List<String> errorSnapshot;
+        synchronized (errors) {
+            errorSnapshot = List.copyOf(errors);
+        }
+        return new ImportJobDTO(id, status, imported, rowsRejected.get(), rowsPerSecond, errorSnapshot);
+    }
+}
@@ -0,0 +1,92 @@
+package com.budget.service;
+
+import com.budget.config.TenantContext;
+import com.budget.dto.CategorySummaryDTO;
+import com.budget.dto.MonthlySummaryDTO;
+import com.budget.dto.RangeSummaryDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Summaries over ranges of whole months. The range is split in halves down to single
+ * months on a dedicated, bounded ForkJoinPool; each month's spending comes from its
+ * (cached) monthly summary, and the per-category partials are summed as the halves
+ * join. A long range is therefore spread over every worker, and months already
+ * summarized cost nothing but the merge.
+ */
+@Service
+public class RangeSummaryService {
+
+    private final SummaryService summaryService;
+    private final CategoryService categoryService;
+    private final ForkJoinPool pool;
+
+    public RangeSummaryService(SummaryService summaryService,
+                               CategoryService categoryService,
+                               @Value("${budget.summary.range-parallelism:0}") int parallelism) {
+        this.summaryService = summaryService;
+        this.categoryService = categoryService;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Returns a summary of the months from {@code from} to {@code to}, inclusive, with
+     * each category's limit scaled by the number of months covered.
+     */
+    public RangeSummaryDTO getRangeSummary(YearMonth from, YearMonth to) {
+        Map<Long, BigDecimal> spentByCategory = pool.invoke(new MonthRangeTask(TenantContext.current(), from, to));
+        return summaryService.summarizeRange(from, to, categoryService.findAll(), spentByCategory);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Sums one tenant's spending per category over a range of months.
+     */
+    private final class MonthRangeTask extends RecursiveTask<Map<Long, BigDecimal>> {
+
+        private final long tenantId;
+        private final YearMonth from;
+        private final YearMonth to;
+
+        MonthRangeTask(long tenantId, YearMonth from, YearMonth to) {
+            this.tenantId = tenantId;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Long, BigDecimal> compute() {
+            long months = ChronoUnit.MONTHS.between(from, to) + 1;
+            if (months == 1) {
+                Map<Long, BigDecimal> spent = new HashMap<>();
+                // Pool threads do not inherit the requesting thread's tenant
+                MonthlySummaryDTO summary = TenantContext.callAs(tenantId, () -> summaryService.getMonthlySummary(from));
+                for (CategorySummaryDTO category : summary.categoryBreakdown()) {
+                    spent.put(category.categoryId(), category.spent());
+                }
+                return spent;
+            }
+
+            YearMonth middle = from.plusMonths(months / 2 - 1);
+            MonthRangeTask first = new MonthRangeTask(tenantId, from, middle);
+            MonthRangeTask second = new MonthRangeTask(tenantId, middle.plusMonths(1), to);
+            first.fork();
+            Map<Long, BigDecimal> merged = second.compute();
+            first.join().forEach((categoryId, spent) -> merged.merge(categoryId, spent, BigDecimal::add));
+            return merged;
+        }
+    }
+}
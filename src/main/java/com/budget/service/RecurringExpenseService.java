@@ -0,0 +1,212 @@
+package com.budget.service;
+
+import com.budget.config.TenantContext;
+import com.budget.model.Category;
+import com.budget.model.Expense;
+import com.budget.model.RecurringExpense;
+import com.budget.repository.CategoryRepository;
+import com.budget.repository.ExpenseRepository;
+import com.budget.repository.RecurringExpenseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Recurring expense schedules and the job that posts their due occurrences.
+ * <p>
+ * Occurrences are posted in chunks of at most chunk-size expenses, each inserted with
+ * JDBC batching and committed in one transaction together with the rollup update and
+ * the advanced schedule cursors. Each posted expense carries its schedule ID and
+ * occurrence index, a natural key the database keeps unique, so a restart or a
+ * concurrent run resumes from the committed cursors and never posts an occurrence twice.
+ * Due occurrences are posted nightly, on startup and after a schedule is created, on
+ * the application task executor. A chunk that fails is retried one schedule at a time,
+ * and a schedule that still fails is logged and skipped until the next run.
+ */
+@Service
+public class RecurringExpenseService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecurringExpenseService.class);
+
+    private final RecurringExpenseRepository recurringExpenseRepository;
+    private final ExpenseRepository expenseRepository;
+    private final CategoryRepository categoryRepository;
+    private final RollupService rollupService;
+    private final ExpenseSearchService expenseSearchService;
+    private final ExpenseColumnStore expenseColumnStore;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncTaskExecutor taskExecutor;
+    private final int chunkSize;
+    private final int schedulesPerChunk;
+    private final ReentrantLock materializeLock = new ReentrantLock();
+
+    public RecurringExpenseService(RecurringExpenseRepository recurringExpenseRepository,
+                                   ExpenseRepository expenseRepository,
+                                   CategoryRepository categoryRepository,
+                                   RollupService rollupService,
+                                   ExpenseSearchService expenseSearchService,
+                                   ExpenseColumnStore expenseColumnStore,
+                                   TransactionTemplate transactionTemplate,
+                                   @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                                   AsyncTaskExecutor taskExecutor,
+                                   @Value("${budget.recurring.chunk-size:1000}") int chunkSize,
+                                   @Value("${budget.recurring.schedules-per-chunk:200}") int schedulesPerChunk) {
+        this.recurringExpenseRepository = recurringExpenseRepository;
+        this.expenseRepository = expenseRepository;
+        this.categoryRepository = categoryRepository;
+        this.rollupService = rollupService;
+        this.expenseSearchService = expenseSearchService;
+        this.expenseColumnStore = expenseColumnStore;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+        this.schedulesPerChunk = schedulesPerChunk;
+    }
+
+    /**
+     * Returns all of the current tenant's schedules.
+     */
+    @Transactional(readOnly = true)
+    public List<RecurringExpense> findAll() {
+        return recurringExpenseRepository.findByTenantIdOrderByIdAsc(TenantContext.current());
+    }
+
+    /**
+     * Saves a new schedule. Occurrences already due, including any backfill for a
+     * start date in the past, are posted in the background once it commits.
+     */
+    @Transactional
+    public RecurringExpense create(RecurringExpense recurringExpense) {
+        RecurringExpense saved = recurringExpenseRepository.save(recurringExpense);
+        Transactions.afterCommit(this::materializeDueInBackground);
+        return saved;
+    }
+
+    /**
+     * Deletes a schedule. Expenses it already posted are kept.
+     * @return false if the current tenant has no schedule with the given ID
+     */
+    @Transactional
+    public boolean delete(Long id) {
+        if (!recurringExpenseRepository.existsByIdAndTenantId(id, TenantContext.current())) {
+            return false;
+        }
+        recurringExpenseRepository.deleteById(id);
+        return true;
+    }
+
+    @Scheduled(cron = "${budget.recurring.cron:0 5 0 * * *}")
+    public void materializeDaily() {
+        materializeDue(LocalDate.now());
+    }
+
+    /**
+     * Catches up on occurrences that fell due while the application was stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void materializeDueInBackground() {
+        taskExecutor.execute(() -> materializeDue(LocalDate.now()));
+    }
+
+    /**
+     * Posts every occurrence of every tenant due on or before the given date. Each
+     * expense takes its tenant from its category. Runs in this process are
+     * serialized; runs in other processes are kept apart by the schedule row locks.
+     * @return the number of expenses posted
+     */
+    public int materializeDue(LocalDate today) {
+        materializeLock.lock();
+        try {
+            int posted = 0;
+            Set<Long> failed = new HashSet<>();
+            List<Long> ids;
+            while (!(ids = findDueIds(today, failed)).isEmpty()) {
+                try {
+                    posted += materializeChunk(ids, today);
+                } catch (RuntimeException e) {
+                    for (Long id : ids) {
+                        try {
+                            posted += materializeChunk(List.of(id), today);
+                        } catch (RuntimeException scheduleFailure) {
+                            log.warn("Skipping recurring expense {} until the next run", id, scheduleFailure);
+                            failed.add(id);
+                        }
+                    }
+                }
+            }
+            return posted;
+        } finally {
+            materializeLock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to schedules-per-chunk due schedule IDs, leaving out the failed ones.
+     */
+    private List<Long> findDueIds(LocalDate today, Set<Long> failed) {
+        return recurringExpenseRepository.findDueIds(today, Limit.of(schedulesPerChunk + failed.size())).stream()
+                .filter(id -> !failed.contains(id))
+                .limit(schedulesPerChunk)
+                .toList();
+    }
+
+    private int materializeChunk(List<Long> ids, LocalDate today) {
+        return transactionTemplate.execute(status -> postDue(ids, today));
+    }
+
+    /**
+     * Posts up to chunk-size due occurrences of the given schedules. A schedule that
+     * does not fit in this chunk keeps its remaining occurrences due for the next one.
+     */
+    private int postDue(List<Long> ids, LocalDate today) {
+        List<RecurringExpense> schedules = recurringExpenseRepository.findAllByIdForUpdate(ids);
+        Map<Long, Category> categories = categoryRepository.findAllById(schedules.stream()
+                        .map(RecurringExpense::getCategoryId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        List<Expense> pending = new ArrayList<>();
+        for (RecurringExpense schedule : schedules) {
+            Category category = categories.get(schedule.getCategoryId());
+            if (category == null || !category.getTenantId().equals(schedule.getTenantId())) {
+                // The category was deleted from under the schedule
+                schedule.stop();
+                continue;
+            }
+            while (pending.size() < chunkSize && schedule.isDue(today)) {
+                Expense expense = new Expense(schedule.getAmount(), schedule.getDescription(),
+                        schedule.getNextDate(), category);
+                expense.setRecurrence(schedule.getId(), schedule.getNextOccurrence());
+                pending.add(expense);
+                schedule.advance();
+            }
+        }
+
+        List<Expense> saved = expenseRepository.saveAll(pending);
+        rollupService.addAll(saved);
+        expenseSearchService.indexAll(saved);
+        expenseColumnStore.putAll(saved);
+        return saved.size();
+    }
+}
@@ -0,0 +1,281 @@
+package com.budget.service;
+
+import com.budget.config.CacheConfig;
+import com.budget.dto.CategoryMonthTotalDTO;
+import com.budget.dto.RollupVerificationDTO;
+import com.budget.model.CategoryMonthTotal;
+import com.budget.model.Expense;
+import com.budget.model.Money;
+import com.budget.repository.CategoryMonthTotalRepository;
+import com.budget.repository.CategoryRepository;
+import com.budget.repository.ExpenseRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the category_month_totals rollup. Write paths call into this service
+ * within their own transaction, so totals commit or roll back together with the
+ * expenses they describe. Every change to a month's totals bumps that tenant's data
+ * version, notifies its live subscribers and, once the transaction commits, evicts its
+ * cached summary of the month, so a concurrent reader cannot re-cache the totals from
+ * before the change. The tenant is always taken from the expenses and totals
+ * themselves, never from the calling thread.
+ * <p>
+ * A delta is added to the total in place. A writer that finds no total for the
+ * category and month locks the category before inserting one, so a concurrent writer
+ * starting the same month waits for that insert to commit and then updates the row
+ * instead of inserting a duplicate.
+ */
+@Service
+public class RollupService {
+
+    private final CategoryMonthTotalRepository categoryMonthTotalRepository;
+    private final CategoryRepository categoryRepository;
+    private final ExpenseRepository expenseRepository;
+    private final DataVersionService dataVersionService;
+    private final SummaryStreamService summaryStreamService;
+    private final Cache summaryCache;
+
+    public RollupService(CategoryMonthTotalRepository categoryMonthTotalRepository,
+                         CategoryRepository categoryRepository,
+                         ExpenseRepository expenseRepository,
+                         DataVersionService dataVersionService,
+                         SummaryStreamService summaryStreamService,
+                         CacheManager cacheManager) {
+        this.categoryMonthTotalRepository = categoryMonthTotalRepository;
+        this.categoryRepository = categoryRepository;
+        this.expenseRepository = expenseRepository;
+        this.dataVersionService = dataVersionService;
+        this.summaryStreamService = summaryStreamService;
+        this.summaryCache = cacheManager.getCache(CacheConfig.MONTHLY_SUMMARIES);
+    }
+
+    /**
+     * Builds the rollup on first start against a database that already has expenses.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        if (categoryMonthTotalRepository.count() == 0 && expenseRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Adds a newly created expense to its category's monthly total.
+     */
+    @Transactional
+    public void add(Expense expense) {
+        apply(expense.getTenantId(), expense.getCategory().getId(), expense.getDate(), expense.getAmount(), 1);
+    }
+
+    /**
+     * Adds newly created expenses, applying one delta per category and month.
+     */
+    @Transactional
+    public void addAll(Collection<Expense> expenses) {
+        applyAll(expenses);
+    }
+
+    /**
+     * Moves an updated expense's contribution from its previous category, month and
+     * amount to its current ones.
+     */
+    @Transactional
+    public void replace(Long previousCategoryId, LocalDate previousDate, BigDecimal previousAmount, Expense updated) {
+        Long tenantId = updated.getTenantId();
+        Long categoryId = updated.getCategory().getId();
+        if (categoryId.equals(previousCategoryId) && monthStart(updated.getDate()).equals(monthStart(previousDate))) {
+            BigDecimal delta = updated.getAmount().subtract(previousAmount);
+            if (delta.signum() != 0) {
+                apply(tenantId, categoryId, updated.getDate(), delta, 0);
+            }
+            return;
+        }
+        apply(tenantId, previousCategoryId, previousDate, previousAmount.negate(), -1);
+        apply(tenantId, categoryId, updated.getDate(), updated.getAmount(), 1);
+    }
+
+    /**
+     * Removes a deleted expense from its category's monthly total.
+     */
+    @Transactional
+    public void remove(Expense expense) {
+        apply(expense.getTenantId(), expense.getCategory().getId(), expense.getDate(), expense.getAmount().negate(), -1);
+    }
+
+    /**
+     * Locks a tenant's totals, optionally of one category, for every month overlapping
+     * the dates from {@code from} to {@code to}, inclusive, and then the categories
+     * themselves, so that a concurrent writer to any of those months, including one
+     * starting a month that has no total yet, waits until the transaction ends. Null
+     * bounds are open.
+     */
+    @Transactional
+    public void lockTotals(long tenantId, Long categoryId, LocalDate from, LocalDate to) {
+        categoryMonthTotalRepository.findForUpdate(tenantId, categoryId,
+                from != null ? monthStart(from) : null, to != null ? monthStart(to) : null);
+        if (categoryId != null) {
+            categoryRepository.findByIdForUpdate(categoryId);
+        } else {
+            categoryRepository.findByTenantIdForUpdate(tenantId);
+        }
+    }
+
+    /**
+     * Removes expenses that are about to be deleted, given their totals per category and month.
+     */
+    @Transactional
+    public void removeTotals(Collection<CategoryMonthTotalDTO> totals) {
+        for (CategoryMonthTotalDTO total : totals) {
+            apply(total.tenantId(), total.categoryId(), LocalDate.of(total.year(), total.month(), 1),
+                    total.spent().negate(), -total.expenseCount());
+        }
+    }
+
+    /**
+     * Moves every monthly total of one category onto another, for when all of the
+     * source category's expenses are reassigned. The source totals are locked first
+     * so concurrent writes to the category wait for the move to commit.
+     */
+    @Transactional
+    public void moveCategory(Long fromCategoryId, Long toCategoryId) {
+        for (CategoryMonthTotal total : categoryMonthTotalRepository.findByCategoryIdForUpdate(fromCategoryId)) {
+            if (total.getExpenseCount() == 0 && total.getSpent().signum() == 0) {
+                continue;
+            }
+            apply(total.getTenantId(), toCategoryId, total.getMonthStart(), total.getSpent(), total.getExpenseCount());
+            apply(total.getTenantId(), fromCategoryId, total.getMonthStart(), total.getSpent().negate(),
+                    -total.getExpenseCount());
+        }
+    }
+
+    /**
+     * Discards the rollup of every tenant and recomputes it from the expenses table.
+     */
+    @Transactional
+    public void rebuild() {
+        categoryMonthTotalRepository.deleteAllInBatch();
+        categoryMonthTotalRepository.saveAll(toTotals(expenseRepository.sumByCategoryAndMonth()));
+        Transactions.afterCommit(summaryCache::clear);
+        dataVersionService.allExpensesChanged();
+    }
+
+    /**
+     * Discards one tenant's rollup and recomputes it from the tenant's expenses.
+     */
+    @Transactional
+    public void rebuild(long tenantId) {
+        categoryMonthTotalRepository.deleteByTenantId(tenantId);
+        categoryMonthTotalRepository.saveAll(toTotals(expenseRepository.sumByCategoryAndMonth(tenantId)));
+        Transactions.afterCommit(() -> CacheConfig.evictTenant(tenantId));
+        dataVersionService.allExpensesChanged(tenantId);
+    }
+
+    /**
+     * Compares one tenant's rollup against totals computed from the tenant's expenses.
+     */
+    @Transactional(readOnly = true)
+    public RollupVerificationDTO verify(long tenantId) {
+        Map<TotalKey, CategoryMonthTotal> rollup = new HashMap<>();
+        for (CategoryMonthTotal total : categoryMonthTotalRepository.findByTenantId(tenantId)) {
+            if (total.getExpenseCount() != 0 || total.getSpent().signum() != 0) {
+                rollup.put(new TotalKey(total.getTenantId(), total.getCategoryId(), total.getMonthStart()), total);
+            }
+        }
+
+        List<String> mismatches = new ArrayList<>();
+        for (CategoryMonthTotalDTO actual : expenseRepository.sumByCategoryAndMonth(tenantId)) {
+            TotalKey key = new TotalKey(actual.tenantId(), actual.categoryId(),
+                    LocalDate.of(actual.year(), actual.month(), 1));
+            CategoryMonthTotal stored = rollup.remove(key);
+            if (stored == null) {
+                mismatches.add(key + ": missing from rollup, expected "
+                        + actual.spent() + " (" + actual.expenseCount() + ")");
+            } else if (stored.getSpent().compareTo(actual.spent()) != 0
+                    || stored.getExpenseCount() != actual.expenseCount()) {
+                mismatches.add(key + ": rollup has " + stored.getSpent() + " (" + stored.getExpenseCount()
+                        + "), expected " + actual.spent() + " (" + actual.expenseCount() + ")");
+            }
+        }
+        rollup.forEach((key, stored) -> mismatches.add(key + ": rollup has " + stored.getSpent()
+                + " (" + stored.getExpenseCount() + ") but there are no expenses"));
+
+        return new RollupVerificationDTO(mismatches.isEmpty(), mismatches);
+    }
+
+    private static List<CategoryMonthTotal> toTotals(List<CategoryMonthTotalDTO> sums) {
+        return sums.stream()
+                .map(total -> new CategoryMonthTotal(
+                        total.tenantId(),
+                        total.categoryId(),
+                        LocalDate.of(total.year(), total.month(), 1),
+                        total.spent(),
+                        total.expenseCount()))
+                .toList();
+    }
+
+    /**
+     * Adds expenses, grouped by category and month.
+     */
+    private void applyAll(Collection<Expense> expenses) {
+        // Cents and count per key, added to in place rather than replaced on every expense
+        Map<TotalKey, long[]> totals = new HashMap<>();
+        for (Expense expense : expenses) {
+            TotalKey key = new TotalKey(expense.getTenantId(), expense.getCategory().getId(),
+                    monthStart(expense.getDate()));
+            long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+            total[0] = Math.addExact(total[0], Money.of(expense.getAmount()).cents());
+            total[1]++;
+        }
+        totals.forEach((key, total) -> apply(key.tenantId(), key.categoryId(), key.monthStart(),
+                new Money(total[0]).toBigDecimal(), total[1]));
+    }
+
+    private void apply(Long tenantId, Long categoryId, LocalDate date, BigDecimal amount, long count) {
+        LocalDate monthStart = monthStart(date);
+        if (categoryMonthTotalRepository.addToTotal(categoryId, monthStart, amount, count) == 0) {
+            // Serializes writers that both missed; the later one sees the earlier one's row
+            categoryRepository.findByIdForUpdate(categoryId);
+            if (categoryMonthTotalRepository.addToTotal(categoryId, monthStart, amount, count) == 0) {
+                categoryMonthTotalRepository.save(new CategoryMonthTotal(tenantId, categoryId, monthStart, amount, count));
+            }
+        }
+        YearMonth month = YearMonth.from(monthStart);
+        CacheConfig.TenantKey summaryKey = CacheConfig.tenantKey(tenantId, month);
+        Transactions.afterCommit(() -> summaryCache.evict(summaryKey));
+        dataVersionService.expensesChanged(tenantId, month);
+        if (summaryStreamService.hasSubscribers(tenantId, month)) {
+            summaryStreamService.categoryChanged(tenantId, month, categoryId,
+                    categoryMonthTotalRepository.findSpent(categoryId, monthStart).orElse(amount));
+        }
+    }
+
+    private static LocalDate monthStart(LocalDate date) {
+        return date.withDayOfMonth(1);
+    }
+
+    /**
+     * Identifies one row of the rollup.
+     */
+    private record TotalKey(Long tenantId, Long categoryId, LocalDate monthStart) {
+        @Override
+        public String toString() {
+            return "tenant " + tenantId + ", category " + categoryId + ", " + monthStart.getYear() + "-"
+                    + String.format("%02d", monthStart.getMonthValue());
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.budget.service;
+
+import com.budget.config.CacheConfig;
+import com.budget.config.TenantContext;
+import com.budget.dto.CategorySummaryDTO;
+import com.budget.dto.CategoryTotalDTO;
+import com.budget.dto.MonthTrendDTO;
+import com.budget.dto.MonthlySummaryDTO;
+import com.budget.dto.RangeSummaryDTO;
+import com.budget.model.Category;
+import com.budget.model.CategoryMonthTotal;
+import com.budget.model.Money;
+import com.budget.repository.CategoryMonthTotalRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the current tenant's budget summaries. Results are cached per tenant and
+ * month; the cache entry for a month is evicted whenever its rollup totals or any of
+ * the tenant's categories change.
+ * When parallel queries are enabled and the tenant's categories are not cached, the
+ * category and rollup queries behind a summary run concurrently, the category query on
+ * the application task executor. That costs a thread hand-off and a second pooled
+ * connection per summary, so it is off by default unless
+ * spring.threads.virtual.enabled is set.
+ */
+@Service
+public class SummaryService {
+
+    private final CategoryMonthTotalRepository categoryMonthTotalRepository;
+    private final CategoryService categoryService;
+    private final Cache categoriesCache;
+    private final AsyncTaskExecutor taskExecutor;
+    private final boolean parallelQueries;
+
+    public SummaryService(CategoryMonthTotalRepository categoryMonthTotalRepository,
+                          CategoryService categoryService,
+                          CacheManager cacheManager,
+                          @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                          AsyncTaskExecutor taskExecutor,
+                          @Value("${budget.summary.parallel-queries:${spring.threads.virtual.enabled:false}}") boolean parallelQueries) {
+        this.categoryMonthTotalRepository = categoryMonthTotalRepository;
+        this.categoryService = categoryService;
+        this.categoriesCache = cacheManager.getCache(CacheConfig.CATEGORIES);
+        this.taskExecutor = taskExecutor;
+        this.parallelQueries = parallelQueries;
+    }
+
+    /**
+     * Returns a monthly summary with total spending and per-category breakdown.
+     * Spending comes from the category_month_totals rollup, so the cost depends on the
+     * number of categories rather than the number of expenses.
+     */
+    @Cacheable(cacheNames = CacheConfig.MONTHLY_SUMMARIES, keyGenerator = CacheConfig.TENANT_KEY_GENERATOR)
+    @Transactional(readOnly = true)
+    public MonthlySummaryDTO getMonthlySummary(YearMonth yearMonth) {
+        if (!parallelQueries || categoriesCache.get(CacheConfig.tenantKey(TenantContext.current())) != null) {
+            return summarize(yearMonth, categoryService.findAll(), findSpentByCategory(yearMonth));
+        }
+
+        // Categories are not cached, so they load on the executor while this thread reads the rollup
+        CompletableFuture<List<Category>> categories =
+                CompletableFuture.supplyAsync(TenantContext.wrap(categoryService::findAll), taskExecutor);
+        Map<Long, BigDecimal> spentByCategory = findSpentByCategory(yearMonth);
+        try {
+            return summarize(yearMonth, categories.join(), spentByCategory);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns per-category spending for every month from {@code from} to {@code to},
+     * inclusive, read from the rollup with a single range query. Months without any
+     * spending are included with a zero total so the result can be charted directly.
+     */
+    @Transactional(readOnly = true)
+    public List<MonthTrendDTO> getTrend(YearMonth from, YearMonth to) {
+        Map<YearMonth, List<CategoryTotalDTO>> totalsByMonth = new LinkedHashMap<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            totalsByMonth.put(month, new ArrayList<>());
+        }
+
+        for (CategoryMonthTotal total : categoryMonthTotalRepository
+                .findByTenantIdAndMonthStartBetweenOrderByMonthStartAscCategoryIdAsc(
+                        TenantContext.current(), from.atDay(1), to.atDay(1))) {
+            if (total.getExpenseCount() != 0) {
+                totalsByMonth.get(YearMonth.from(total.getMonthStart()))
+                        .add(new CategoryTotalDTO(total.getCategoryId(), total.getSpent()));
+            }
+        }
+
+        List<MonthTrendDTO> trend = new ArrayList<>(totalsByMonth.size());
+        totalsByMonth.forEach((month, totals) -> {
+            long totalSpentCents = 0;
+            int scale = 0;
+            for (CategoryTotalDTO total : totals) {
+                totalSpentCents = Math.addExact(totalSpentCents, Money.of(total.spent()).cents());
+                scale = Math.max(scale, total.spent().scale());
+            }
+            trend.add(new MonthTrendDTO(month.getYear(), month.getMonthValue(),
+                    new Money(totalSpentCents).toBigDecimal(scale), totals));
+        });
+        return trend;
+    }
+
+    /**
+     * Builds a summary from categories and the amount spent in each one.
+     * Categories missing from spentByCategory are reported as having no spending.
+     */
+    public MonthlySummaryDTO summarize(YearMonth yearMonth, List<Category> categories, Map<Long, BigDecimal> spentByCategory) {
+        Breakdown breakdown = breakdown(categories, spentByCategory, 1);
+        return new MonthlySummaryDTO(
+                yearMonth.getYear(),
+                yearMonth.getMonthValue(),
+                breakdown.totalSpent(),
+                breakdown.totalLimit(),
+                breakdown.categories()
+        );
+    }
+
+    /**
+     * Builds a summary of the months from {@code from} to {@code to}, inclusive, from
+     * the amount spent in each category over the whole range. Each category's limit is
+     * its monthly limit multiplied by the number of months covered.
+     */
+    public RangeSummaryDTO summarizeRange(YearMonth from, YearMonth to, List<Category> categories,
+                                          Map<Long, BigDecimal> spentByCategory) {
+        int months = (int) ChronoUnit.MONTHS.between(from, to) + 1;
+        Breakdown breakdown = breakdown(categories, spentByCategory, months);
+        return new RangeSummaryDTO(
+                from,
+                to,
+                months,
+                breakdown.totalSpent(),
+                breakdown.totalLimit(),
+                breakdown.categories()
+        );
+    }
+
+    /**
+     * Builds one category's line of a summary from the amount spent in it.
+     */
+    public CategorySummaryDTO summarizeCategory(Category category, BigDecimal spent) {
+        return toCategorySummary(category, spent, limit(category, 1));
+    }
+
+    private Breakdown breakdown(List<Category> categories, Map<Long, BigDecimal> spentByCategory, int months) {
+        List<CategorySummaryDTO> categoryBreakdown = new ArrayList<>(categories.size());
+        // Sums are kept in plain longs; a Money carried from one iteration to the next
+        // would be allocated on every step
+        long totalSpentCents = 0;
+        long totalLimitCents = 0;
+        // Totals keep the scale a BigDecimal sum of the same amounts would have
+        int spentScale = 0;
+        int limitScale = 0;
+
+        for (Category category : categories) {
+            BigDecimal spent = spentByCategory.getOrDefault(category.getId(), BigDecimal.ZERO);
+            BigDecimal limit = limit(category, months);
+
+            categoryBreakdown.add(toCategorySummary(category, spent, limit));
+
+            totalSpentCents = Math.addExact(totalSpentCents, Money.of(spent).cents());
+            spentScale = Math.max(spentScale, spent.scale());
+            if (limit != null) {
+                totalLimitCents = Math.addExact(totalLimitCents, Money.of(limit).cents());
+                limitScale = Math.max(limitScale, limit.scale());
+            }
+        }
+
+        return new Breakdown(new Money(totalSpentCents).toBigDecimal(spentScale),
+                new Money(totalLimitCents).toBigDecimal(limitScale), categoryBreakdown);
+    }
+
+    /**
+     * Returns a category's limit over the given number of months.
+     */
+    private static BigDecimal limit(Category category, int months) {
+        BigDecimal limit = category.getMonthlyLimit();
+        return limit == null || months == 1 ? limit : limit.multiply(BigDecimal.valueOf(months));
+    }
+
+    private CategorySummaryDTO toCategorySummary(Category category, BigDecimal spent, BigDecimal limit) {
+        Money limitAmount = limit != null ? Money.of(limit) : Money.ZERO;
+        double percentUsed = Money.of(spent).percentOf(limitAmount);
+        return new CategorySummaryDTO(
+                category.getId(),
+                category.getName(),
+                category.getColor(),
+                spent,
+                limit,
+                percentUsed,
+                determineStatus(percentUsed, limitAmount)
+        );
+    }
+
+    /**
+     * Reads a month's spending per category from the rollup.
+     */
+    private Map<Long, BigDecimal> findSpentByCategory(YearMonth yearMonth) {
+        return categoryMonthTotalRepository.findByTenantIdAndMonthStart(TenantContext.current(), yearMonth.atDay(1))
+                .stream()
+                .collect(Collectors.toMap(CategoryMonthTotal::getCategoryId, CategoryMonthTotal::getSpent));
+    }
+
+    /**
+     * Determines budget status based on percentage used.
+     * @return "exceeded" if >100%, "warning" if >=80%, otherwise "ok"
+     */
+    private String determineStatus(double percentUsed, Money limit) {
+        if (limit.signum() == 0) {
+            return "ok";
+        }
+        if (percentUsed > 100) {
+            return "exceeded";
+        } else if (percentUsed >= 80) {
+            return "warning";
+        }
+        return "ok";
+    }
+
+    /**
+     * A summary's category lines and totals.
+     */
+    private record Breakdown(BigDecimal totalSpent, BigDecimal totalLimit, List<CategorySummaryDTO> categories) {}
+}
@@ -0,0 +1,121 @@
+package com.budget.service;
+
+import com.budget.config.TenantContext;
+import com.budget.dto.CategorySummaryDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes live summary updates to server-sent event subscribers, grouped by tenant and month.
+ * A subscriber first receives the month's full summary as a "summary" event, then
+ * a "category" event with the updated CategorySummaryDTO each time a committed write
+ * changes one of that month's category totals. Event IDs increase in commit order,
+ * so clients can discard an event older than one they have already applied.
+ * <p>
+ * Subscribers hold no thread while idle; events are sent from the application task
+ * executor, never from the thread that made the write.
+ */
+@Service
+public class SummaryStreamService {
+
+    private final SummaryService summaryService;
+    private final CategoryService categoryService;
+    private final AsyncTaskExecutor taskExecutor;
+    private final long timeoutMillis;
+    private final Map<TenantMonth, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong eventIds = new AtomicLong();
+
+    public SummaryStreamService(SummaryService summaryService,
+                                CategoryService categoryService,
+                                @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                                AsyncTaskExecutor taskExecutor,
+                                @Value("${budget.summary.stream-timeout:30m}") Duration timeout) {
+        this.summaryService = summaryService;
+        this.categoryService = categoryService;
+        this.taskExecutor = taskExecutor;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Subscribes to a month's updates for the current tenant, starting with its current summary.
+     */
+    public SseEmitter subscribe(YearMonth yearMonth) {
+        TenantMonth month = new TenantMonth(TenantContext.current(), yearMonth);
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        subscribers.compute(month, (key, emitters) -> {
+            Set<SseEmitter> result = emitters != null ? emitters : ConcurrentHashMap.newKeySet();
+            result.add(emitter);
+            return result;
+        });
+        emitter.onCompletion(() -> unsubscribe(month, emitter));
+        emitter.onTimeout(() -> unsubscribe(month, emitter));
+        emitter.onError(e -> unsubscribe(month, emitter));
+
+        send(month, emitter, eventIds.get(), "summary", summaryService.getMonthlySummary(yearMonth));
+        return emitter;
+    }
+
+    /**
+     * Returns true if anyone is subscribed to a tenant's month, so writers can skip
+     * building events nobody will receive.
+     */
+    public boolean hasSubscribers(long tenantId, YearMonth month) {
+        return subscribers.containsKey(new TenantMonth(tenantId, month));
+    }
+
+    /**
+     * Publishes a category's new total for a tenant's month once the current transaction commits.
+     */
+    public void categoryChanged(long tenantId, YearMonth yearMonth, Long categoryId, BigDecimal spent) {
+        TenantMonth month = new TenantMonth(tenantId, yearMonth);
+        Transactions.afterCommit(() -> {
+            long eventId = eventIds.incrementAndGet();
+            taskExecutor.execute(() -> TenantContext.runAs(tenantId, () ->
+                    categoryService.findById(categoryId).ifPresent(category -> {
+                        CategorySummaryDTO update = summaryService.summarizeCategory(category, spent);
+                        Set<SseEmitter> emitters = subscribers.get(month);
+                        if (emitters != null) {
+                            emitters.forEach(emitter -> send(month, emitter, eventId, "category", update));
+                        }
+                    })));
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        subscribers.clear();
+    }
+
+    private void send(TenantMonth month, SseEmitter emitter, long eventId, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().id(Long.toString(eventId)).name(name).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // The client has gone away; the container completes the emitter itself
+            unsubscribe(month, emitter);
+        }
+    }
+
+    private void unsubscribe(TenantMonth month, SseEmitter emitter) {
+        subscribers.computeIfPresent(month, (key, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private record TenantMonth(long tenantId, YearMonth month) {}
+}
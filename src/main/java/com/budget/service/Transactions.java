@@ -0,0 +1,49 @@
+package com.budget.service;
+
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Helpers for work that must only become visible once a transaction commits.
+ */
+final class Transactions {
+
+    private Transactions() {}
+
+    /**
+     * Runs an action after the current transaction commits, or immediately if no
+     * transaction is active. The action is dropped if the transaction rolls back.
+     */
+    static void afterCommit(Runnable action) {
+        register(action, 0);
+    }
+
+    /**
+     * Like {@link #afterCommit}, but runs after every action registered with it in the
+     * same transaction, whatever the order of registration. Data versions are bumped
+     * this way, so an ETag never changes before the caches and in-memory stores that
+     * its responses are built from.
+     */
+    static void afterCommitLast(Runnable action) {
+        register(action, Ordered.LOWEST_PRECEDENCE);
+    }
+
+    private static void register(Runnable action, int order) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return order;
+            }
+
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
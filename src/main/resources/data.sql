@@ -1,8 +1,7 @@
--- Seed default categories (only insert if not exists)
-MERGE INTO categories (id, name, monthly_limit, color, description) KEY (name) VALUES
-(1, 'Groceries', 0, '#22c55e', 'Food and household supplies'),
-(2, 'Rent', 0, '#3b82f6', 'Monthly rent or mortgage'),
-(3, 'Utilities', 0, '#f59e0b', 'Electric, water, gas, internet'),
-(4, 'Miscellaneous', 0, '#6b7280', 'Other expenses'),
-(5, 'Personal', 0, '#8b5cf6', 'Personal care and entertainment');
-
+-- Seed default categories for the default tenant (only insert if not exists)
+MERGE INTO categories (id, tenant_id, name, monthly_limit, color, description) KEY (tenant_id, name) VALUES
+(1, 1, 'Groceries', 0, '#22c55e', 'Food and household supplies'),
+(2, 1, 'Rent', 0, '#3b82f6', 'Monthly rent or mortgage'),
+(3, 1, 'Utilities', 0, '#f59e0b', 'Electric, water, gas, internet'),
+(4, 1, 'Miscellaneous', 0, '#6b7280', 'Other expenses'),
+(5, 1, 'Personal', 0, '#8b5cf6', 'Personal care and entertainment');
@@ -0,0 +1,23 @@
+package com.budget.config;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Binds {@link TenantContext#DEFAULT_TENANT} to the test thread for each test, so
+ * setup code and direct service and repository calls act for the tenant that requests
+ * without an X-Tenant-Id header use.
+ */
+public class DefaultTenantExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        TenantContext.set(TenantContext.DEFAULT_TENANT);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        TenantContext.clear();
+    }
+}
@@ -0,0 +1,165 @@
+package com.budget.controller;
+
+import com.budget.config.DefaultTenantExtension;
+import com.budget.config.TenantContext;
+import com.budget.model.Category;
+import com.budget.model.Expense;
+import com.budget.repository.CategoryMonthTotalRepository;
+import com.budget.repository.CategoryRepository;
+import com.budget.repository.ExpenseRepository;
+import com.budget.service.ExpenseColumnStore;
+import com.budget.service.ExpenseService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for AnalyticsController REST endpoints.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(DefaultTenantExtension.class)
+class AnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryMonthTotalRepository categoryMonthTotalRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ExpenseColumnStore expenseColumnStore;
+
+    private Category groceries;
+    private Category rent;
+
+    @BeforeAll
+    static void beforeAll() {
+        System.out.println("=== Running AnalyticsControllerTest ===");
+    }
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        expenseRepository.deleteAll();
+        categoryRepository.deleteAll();
+        categoryMonthTotalRepository.deleteAll();
+
+        groceries = categoryRepository.save(new Category("Groceries", "#22c55e", new BigDecimal("500.00"), ""));
+        rent = categoryRepository.save(new Category("Rent", "#3b82f6", new BigDecimal("2000.00"), ""));
+
+        // Rows deleted through the repository above bypass the store
+        expenseColumnStore.rebuild();
+    }
+
+    /**
+     * Tests category, daily and description totals over a range that crosses a month boundary.
+     */
+    @Test
+    void totalsOverDateRange() throws Exception {
+        System.out.println("--- Now testing analytics totals over a date range ---");
+
+        expenseService.create(new Expense(new BigDecimal("40.25"), "Market", LocalDate.of(2024, 11, 30), groceries));
+        expenseService.create(new Expense(new BigDecimal("59.75"), "Market", LocalDate.of(2024, 12, 2), groceries));
+        expenseService.create(new Expense(new BigDecimal("12.00"), "Bakery", LocalDate.of(2024, 12, 2), groceries));
+        expenseService.create(new Expense(new BigDecimal("1500.00"), "Rent", LocalDate.of(2024, 12, 1), rent));
+        expenseService.create(new Expense(new BigDecimal("99.00"), "Market", LocalDate.of(2024, 12, 20), groceries));
+
+        mockMvc.perform(get("/api/analytics/categories").param("from", "2024-11-30").param("to", "2024-12-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[?(@.categoryId == " + groceries.getId() + ")].spent", contains(112.00)))
+                .andExpect(jsonPath("$[?(@.categoryId == " + rent.getId() + ")].spent", contains(1500.00)));
+
+        mockMvc.perform(get("/api/analytics/daily")
+                        .param("from", "2024-11-30").param("to", "2024-12-31")
+                        .param("categoryId", groceries.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[1].date", is("2024-12-02")))
+                .andExpect(jsonPath("$[1].spent", is(71.75)))
+                .andExpect(jsonPath("$[1].expenseCount", is(2)));
+
+        mockMvc.perform(get("/api/analytics/descriptions")
+                        .param("from", "2024-11-01").param("to", "2024-12-31").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].description", is("Rent")))
+                .andExpect(jsonPath("$[1].description", is("Market")))
+                .andExpect(jsonPath("$[1].spent", is(199.00)))
+                .andExpect(jsonPath("$[1].expenseCount", is(3)));
+    }
+
+    /**
+     * Tests that the column store follows updates and deletes and agrees with the
+     * equivalent SQL aggregates.
+     */
+    @Test
+    void columnStoreMatchesSql() {
+        System.out.println("--- Now testing column store against SQL aggregates ---");
+
+        Expense moved = expenseService.create(new Expense(new BigDecimal("30.00"), "Market", LocalDate.of(2024, 12, 5), groceries));
+        Expense deleted = expenseService.create(new Expense(new BigDecimal("45.50"), "Cinema", LocalDate.of(2024, 12, 6), groceries));
+        expenseService.create(new Expense(new BigDecimal("1500.00"), "Rent", LocalDate.of(2024, 12, 1), rent));
+        expenseService.update(moved.getId(), expense -> {
+            expense.setAmount(new BigDecimal("35.10"));
+            expense.setDate(LocalDate.of(2025, 1, 3));
+        });
+        expenseService.delete(deleted.getId());
+
+        long tenant = TenantContext.DEFAULT_TENANT;
+        LocalDate from = LocalDate.of(2024, 12, 1);
+        LocalDate to = LocalDate.of(2025, 2, 1);
+        assertThat(expenseColumnStore.size()).isEqualTo(2);
+        assertThat(expenseColumnStore.sumByCategory(tenant, from, to))
+                .containsExactlyInAnyOrderElementsOf(expenseRepository.sumByCategoryForDateRange(tenant, from, to));
+        assertThat(expenseColumnStore.sumByDay(tenant, from, to, null))
+                .containsExactlyElementsOf(expenseRepository.sumByDayForDateRange(tenant, from, to, null));
+        assertThat(expenseColumnStore.topDescriptions(tenant, from, to, 10))
+                .containsExactlyElementsOf(expenseRepository.sumByDescriptionForDateRange(tenant, from, to, Limit.of(10)));
+    }
+
+    /**
+     * Tests that malformed, reversed and overly long ranges are rejected.
+     */
+    @Test
+    void invalidRange() throws Exception {
+        System.out.println("--- Now testing analytics with invalid ranges ---");
+
+        mockMvc.perform(get("/api/analytics/categories").param("from", "2024-13-01").param("to", "2024-12-31"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/analytics/categories").param("from", "2024-12-31").param("to", "2024-12-01"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/analytics/daily").param("from", "1900-01-01").param("to", "2024-12-31"))
+                .andExpect(status().isBadRequest());
+    }
+}
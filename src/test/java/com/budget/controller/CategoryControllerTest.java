@@ -1,15 +1,19 @@
 package com.budget.controller;
 
+import com.budget.config.DefaultTenantExtension;
 import com.budget.dto.CategoryDTO;
 import com.budget.model.Category;
 import com.budget.repository.CategoryRepository;
+import com.budget.repository.ExpenseRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -24,14 +28,21 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @SpringBootTest
 @AutoConfigureMockMvc
+@ExtendWith(DefaultTenantExtension.class)
 class CategoryControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -42,6 +53,9 @@ class CategoryControllerTest {
 
     @BeforeEach
     void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        // Expenses left by other test classes sharing the context reference their categories
+        expenseRepository.deleteAll();
         categoryRepository.deleteAll();
     }
 
@@ -202,4 +216,89 @@ class CategoryControllerTest {
         mockMvc.perform(delete("/api/categories/999"))
                 .andExpect(status().isNotFound());
     }
+
+    /**
+     * Tests that creating a category is visible after the list has been cached.
+     */
+    @Test
+    void createEvictsCachedList() throws Exception {
+        System.out.println("--- Now testing category cache eviction on create ---");
+
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        CategoryDTO request = new CategoryDTO(null, "Travel", BigDecimal.ZERO, "#0ea5e9", "");
+        mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name", is("Travel")));
+    }
+
+    /**
+     * Tests that an unchanged list is answered with 304 and a changed one with a new ETag.
+     */
+    @Test
+    void listNotModifiedUntilChanged() throws Exception {
+        System.out.println("--- Now testing conditional requests for the category list ---");
+
+        String etag = mockMvc.perform(get("/api/categories"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/categories").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        CategoryDTO request = new CategoryDTO(null, "Travel", BigDecimal.ZERO, "#0ea5e9", "");
+        mockMvc.perform(post("/api/categories")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/categories").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    /**
+     * Tests that categories are partitioned by the X-Tenant-Id header, including cached lookups.
+     */
+    @Test
+    void tenantsAreIsolated() throws Exception {
+        System.out.println("--- Now testing category isolation between tenants ---");
+
+        Category own = categoryRepository.save(new Category("Rent", "#3b82f6", BigDecimal.ZERO, ""));
+        // Warm the default tenant's cache before the other tenant writes
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        CategoryDTO request = new CategoryDTO(null, "Rent", new BigDecimal("900.00"), "#3b82f6", "");
+        mockMvc.perform(post("/api/categories")
+                        .header("X-Tenant-Id", "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/categories").header("X-Tenant-Id", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].monthlyLimit", is(900.00)));
+        mockMvc.perform(get("/api/categories"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(own.getId().intValue())));
+        mockMvc.perform(get("/api/categories/" + own.getId()).header("X-Tenant-Id", "2"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/categories/" + own.getId()).header("X-Tenant-Id", "2"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/categories").header("X-Tenant-Id", "abc"))
+                .andExpect(status().isBadRequest());
+    }
 }
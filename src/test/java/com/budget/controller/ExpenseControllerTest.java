@@ -1,23 +1,41 @@
 package com.budget.controller;
 
+import com.budget.config.DefaultTenantExtension;
 import com.budget.dto.CreateExpenseRequest;
 import com.budget.model.Category;
 import com.budget.model.Expense;
+import com.budget.repository.CategoryMonthTotalRepository;
 import com.budget.repository.CategoryRepository;
 import com.budget.repository.ExpenseRepository;
+import com.budget.service.ExpenseSearchService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -27,20 +45,36 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @SpringBootTest
 @AutoConfigureMockMvc
+@ExtendWith(DefaultTenantExtension.class)
 class ExpenseControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private ExpenseRepository expenseRepository;
 
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CategoryMonthTotalRepository categoryMonthTotalRepository;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ExpenseSearchService expenseSearchService;
+
     private Category testCategory;
 
     @BeforeAll
@@ -50,8 +84,10 @@ class ExpenseControllerTest {
 
     @BeforeEach
     void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
         expenseRepository.deleteAll();
         categoryRepository.deleteAll();
+        categoryMonthTotalRepository.deleteAll();
 
         testCategory = new Category("Groceries", "#22c55e", BigDecimal.ZERO, "");
         testCategory = categoryRepository.save(testCategory);
@@ -120,6 +156,155 @@ class ExpenseControllerTest {
                 .andExpect(jsonPath("$[0].description", is("December expense")));
     }
 
+    /**
+     * Tests that listing expenses across several categories issues exactly one SQL statement.
+     */
+    @Test
+    void listUsesSingleQuery() throws Exception {
+        System.out.println("--- Now testing expense listing issues a single query ---");
+
+        Category rent = categoryRepository.save(new Category("Rent", "#3b82f6", BigDecimal.ZERO, ""));
+        expenseRepository.save(new Expense(new BigDecimal("10.00"), "Bread", LocalDate.of(2024, 12, 1), testCategory));
+        expenseRepository.save(new Expense(new BigDecimal("900.00"), "December rent", LocalDate.of(2024, 12, 1), rent));
+        expenseRepository.save(new Expense(new BigDecimal("15.00"), "Cheese", LocalDate.of(2024, 12, 2), testCategory));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            mockMvc.perform(get("/api/expenses").param("month", "2024-12"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(3)))
+                    .andExpect(jsonPath("$[*].categoryName", hasItems("Groceries", "Rent")));
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+            statistics.clear();
+            mockMvc.perform(get("/api/expenses"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(3)));
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+            assertThat(meterRegistry.get("budget.http.queries")
+                    .tags("method", "GET", "uri", "/api/expenses")
+                    .summary()
+                    .max()).isEqualTo(1.0);
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
+
+    /**
+     * Tests that pages follow each other via nextCursor in date-descending order.
+     */
+    @Test
+    void getPageFollowsCursor() throws Exception {
+        System.out.println("--- Now testing cursor pagination across pages ---");
+
+        for (int day = 1; day <= 5; day++) {
+            expenseRepository.save(new Expense(
+                    new BigDecimal("10.00"),
+                    "Day " + day,
+                    LocalDate.of(2024, 12, day),
+                    testCategory
+            ));
+        }
+
+        String firstPage = mockMvc.perform(get("/api/expenses/page").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].description", is("Day 5")))
+                .andExpect(jsonPath("$.items[1].description", is("Day 4")))
+                .andExpect(jsonPath("$.nextCursor", notNullValue()))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        String secondPage = mockMvc.perform(get("/api/expenses/page").param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].description", is("Day 3")))
+                .andExpect(jsonPath("$.items[1].description", is("Day 2")))
+                .andReturn().getResponse().getContentAsString();
+        cursor = objectMapper.readTree(secondPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/expenses/page").param("size", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].description", is("Day 1")))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    /**
+     * Tests that a malformed cursor is rejected.
+     */
+    @Test
+    void getPageInvalidCursor() throws Exception {
+        System.out.println("--- Now testing bad request for malformed cursor ---");
+
+        mockMvc.perform(get("/api/expenses/page").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Tests that the CSV export streams a header and one row per expense.
+     */
+    @Test
+    void exportCsv() throws Exception {
+        System.out.println("--- Now testing CSV export ---");
+
+        Expense expense = expenseRepository.save(new Expense(
+                new BigDecimal("12.50"),
+                "Milk, eggs",
+                LocalDate.of(2024, 12, 15),
+                testCategory
+        ));
+
+        MvcResult result = mockMvc.perform(get("/api/expenses/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "id,date,amount,description,categoryId,categoryName\n"
+                        + expense.getId() + ",2024-12-15,12.50,\"Milk, eggs\"," + testCategory.getId() + ",Groceries\n"));
+    }
+
+    /**
+     * Tests that the NDJSON export writes one JSON object per line.
+     */
+    @Test
+    void exportNdjson() throws Exception {
+        System.out.println("--- Now testing NDJSON export ---");
+
+        expenseRepository.save(new Expense(new BigDecimal("10.00"), "First", LocalDate.of(2024, 12, 1), testCategory));
+        expenseRepository.save(new Expense(new BigDecimal("20.00"), "Second", LocalDate.of(2024, 12, 2), testCategory));
+
+        MvcResult result = mockMvc.perform(get("/api/expenses/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[0]).get("description").asText()).isEqualTo("First");
+        assertThat(objectMapper.readTree(lines[1]).get("description").asText()).isEqualTo("Second");
+    }
+
+    /**
+     * Tests that an unknown export format is rejected.
+     */
+    @Test
+    void exportUnknownFormat() throws Exception {
+        System.out.println("--- Now testing bad request for unknown export format ---");
+
+        mockMvc.perform(get("/api/expenses/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
     /**
      * Tests that a single expense is returned by ID.
      */
@@ -175,6 +360,67 @@ class ExpenseControllerTest {
                 .andExpect(jsonPath("$.categoryId", is(testCategory.getId().intValue())));
     }
 
+    /**
+     * Tests that concurrent creates starting a new month for a category all succeed
+     * and leave one rollup total that matches the expenses.
+     */
+    @Test
+    void concurrentCreatesStartingMonth() throws Exception {
+        System.out.println("--- Now testing concurrent creation in a new month ---");
+
+        int requests = 40;
+        List<Future<?>> responses = new ArrayList<>();
+        try (ExecutorService clients = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < requests; i++) {
+                String body = objectMapper.writeValueAsString(new CreateExpenseRequest(
+                        new BigDecimal("2.50"), "Coffee " + i, "2025-03-0" + (1 + i % 9), testCategory.getId()));
+                responses.add(clients.submit(() -> mockMvc.perform(post("/api/expenses")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                        .andExpect(status().isOk())));
+            }
+        }
+        for (Future<?> response : responses) {
+            response.get();
+        }
+
+        mockMvc.perform(get("/api/summary").param("month", "2025-03"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSpent", is(100.00)));
+        mockMvc.perform(get("/api/summary/rollup/verify"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.consistent", is(true)));
+    }
+
+    /**
+     * Tests that an amount with fractions of a cent is rounded half up, as stored,
+     * wherever it is totalled.
+     */
+    @Test
+    void createRoundsFractionsOfCent() throws Exception {
+        System.out.println("--- Now testing expense creation with fractions of a cent ---");
+
+        CreateExpenseRequest request = new CreateExpenseRequest(
+                new BigDecimal("10.005"),
+                "Lunch",
+                "2024-12-20",
+                testCategory.getId()
+        );
+
+        mockMvc.perform(post("/api/expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/analytics/categories").param("from", "2024-12-01").param("to", "2024-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.categoryId == " + testCategory.getId() + ")].spent", contains(10.01)));
+
+        mockMvc.perform(get("/api/summary/rollup/verify"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.consistent", is(true)));
+    }
+
     /**
      * Tests that bad request is returned when category does not exist.
      */
@@ -195,6 +441,161 @@ class ExpenseControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    /**
+     * Tests that a batch creates valid rows and reports invalid ones by index.
+     */
+    @Test
+    void createBatch() throws Exception {
+        System.out.println("--- Now testing batch expense creation ---");
+
+        List<CreateExpenseRequest> requests = List.of(
+                new CreateExpenseRequest(new BigDecimal("10.00"), "Coffee", "2024-12-01", testCategory.getId()),
+                new CreateExpenseRequest(new BigDecimal("20.00"), "Unknown category", "2024-12-02", 999L),
+                new CreateExpenseRequest(new BigDecimal("30.00"), "Bad date", "12/03/2024", testCategory.getId()),
+                new CreateExpenseRequest(new BigDecimal("40.00"), "Lunch", "2024-12-04", testCategory.getId())
+        );
+
+        mockMvc.perform(post("/api/expenses/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(2)))
+                .andExpect(jsonPath("$.errors", hasSize(2)))
+                .andExpect(jsonPath("$.errors[0].index", is(1)))
+                .andExpect(jsonPath("$.errors[1].index", is(2)));
+
+        mockMvc.perform(get("/api/expenses").param("month", "2024-12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)));
+    }
+
+    /**
+     * Tests that search matches word prefixes, ranks exact matches first and applies filters.
+     */
+    @Test
+    void searchByDescription() throws Exception {
+        System.out.println("--- Now testing expense search ---");
+
+        expenseSearchService.rebuild();
+        Category rent = categoryRepository.save(new Category("Rent", "#3b82f6", BigDecimal.ZERO, ""));
+        List<CreateExpenseRequest> requests = List.of(
+                new CreateExpenseRequest(new BigDecimal("80.00"), "Grocery run", "2024-11-02", testCategory.getId()),
+                new CreateExpenseRequest(new BigDecimal("95.00"), "Groceries for the week", "2024-12-03", testCategory.getId()),
+                new CreateExpenseRequest(new BigDecimal("1200.00"), "December rent", "2024-12-01", rent.getId()),
+                new CreateExpenseRequest(new BigDecimal("12.00"), "Rental bike", "2024-12-05", testCategory.getId())
+        );
+        mockMvc.perform(post("/api/expenses/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/expenses/search").param("q", "groc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].description", is("Groceries for the week")));
+
+        mockMvc.perform(get("/api/expenses/search").param("q", "grocery"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].description", is("Grocery run")));
+
+        // Exact word matches outrank newer prefix matches
+        mockMvc.perform(get("/api/expenses/search").param("q", "RENT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].description", is("December rent")))
+                .andExpect(jsonPath("$[1].description", is("Rental bike")));
+
+        mockMvc.perform(get("/api/expenses/search").param("q", "rent").param("categoryId", rent.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(get("/api/expenses/search").param("q", "gro").param("from", "2024-12-01").param("to", "2024-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].description", is("Groceries for the week")));
+
+        mockMvc.perform(get("/api/expenses/search").param("q", "  "))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Tests that updated and deleted expenses are reflected in search results.
+     */
+    @Test
+    void searchFollowsUpdatesAndDeletes() throws Exception {
+        System.out.println("--- Now testing search index maintenance ---");
+
+        expenseSearchService.rebuild();
+        CreateExpenseRequest request = new CreateExpenseRequest(
+                new BigDecimal("30.00"), "Pizza night", "2024-12-06", testCategory.getId());
+        String created = mockMvc.perform(post("/api/expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        mockMvc.perform(get("/api/expenses/search").param("q", "pizza"))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        CreateExpenseRequest update = new CreateExpenseRequest(null, "Sushi night", null, null);
+        mockMvc.perform(put("/api/expenses/" + id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/expenses/search").param("q", "pizza"))
+                .andExpect(jsonPath("$", hasSize(0)));
+        mockMvc.perform(get("/api/expenses/search").param("q", "sushi"))
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(delete("/api/expenses/" + id))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/expenses/search").param("q", "sushi"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    /**
+     * Tests that a CSV import runs to completion and reports rejected rows.
+     */
+    @Test
+    void importCsv() throws Exception {
+        System.out.println("--- Now testing CSV import ---");
+
+        String csv = "date,amount,description,category\n"
+                + "2024-12-01,10.00,Bread,Groceries\n"
+                + "2024-12-02,20.00,\"Milk, eggs\",Groceries\n"
+                + "2024-12-03,30.00,Unknown,Travel\n"
+                + "not-a-date,40.00,Bad row,Groceries\n";
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "expenses.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+
+        String started = mockMvc.perform(multipart("/api/expenses/import").file(file))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String jobId = objectMapper.readTree(started).get("id").asText();
+
+        String status = "queued";
+        for (int attempt = 0; attempt < 100 && (status.equals("queued") || status.equals("running")); attempt++) {
+            Thread.sleep(50);
+            String progress = mockMvc.perform(get("/api/expenses/import/" + jobId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            status = objectMapper.readTree(progress).get("status").asText();
+        }
+
+        mockMvc.perform(get("/api/expenses/import/" + jobId))
+                .andExpect(jsonPath("$.status", is("completed")))
+                .andExpect(jsonPath("$.rowsImported", is(2)))
+                .andExpect(jsonPath("$.rowsRejected", is(2)))
+                .andExpect(jsonPath("$.errors", hasSize(2)));
+
+        mockMvc.perform(get("/api/expenses").param("month", "2024-12"))
+                .andExpect(jsonPath("$[*].description", containsInAnyOrder("Bread", "Milk, eggs")));
+    }
+
     /**
      * Tests successful expense update.
      */
@@ -0,0 +1,176 @@
+package com.budget.controller;
+
+import com.budget.config.DefaultTenantExtension;
+import com.budget.dto.CreateExpenseRequest;
+import com.budget.model.Category;
+import com.budget.repository.CategoryMonthTotalRepository;
+import com.budget.repository.CategoryRepository;
+import com.budget.repository.ExpenseRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for expense creation with group commit turned on.
+ */
+@SpringBootTest(properties = {"budget.ingest.enabled=true", "budget.ingest.group-size=16"})
+@AutoConfigureMockMvc
+@ExtendWith(DefaultTenantExtension.class)
+class ExpenseGroupCommitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryMonthTotalRepository categoryMonthTotalRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Category testCategory;
+
+    @BeforeAll
+    static void beforeAll() {
+        System.out.println("=== Running ExpenseGroupCommitTest ===");
+    }
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        expenseRepository.deleteAll();
+        categoryRepository.deleteAll();
+        categoryMonthTotalRepository.deleteAll();
+
+        testCategory = categoryRepository.save(new Category("Groceries", "#22c55e", BigDecimal.ZERO, ""));
+    }
+
+    /**
+     * Tests that a single create is committed and returned as usual.
+     */
+    @Test
+    void createValid() throws Exception {
+        System.out.println("--- Now testing group-committed expense creation ---");
+
+        mockMvc.perform(post("/api/expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("Lunch", "45.00"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", notNullValue()))
+                .andExpect(jsonPath("$.amount", is(45.00)))
+                .andExpect(jsonPath("$.categoryName", is("Groceries")));
+
+        assertThat(expenseRepository.count()).isEqualTo(1);
+    }
+
+    /**
+     * Tests that concurrent creates are all committed, each with its own ID, in
+     * fewer transactions than requests, and that the monthly rollup matches the
+     * expenses afterwards.
+     */
+    @Test
+    void concurrentCreatesAreAllCommitted() throws Exception {
+        System.out.println("--- Now testing concurrent group-committed expense creation ---");
+
+        AbstractPlatformTransactionManager manager = (AbstractPlatformTransactionManager) transactionManager;
+        List<TransactionExecutionListener> listeners = List.copyOf(manager.getTransactionExecutionListeners());
+        AtomicInteger writerCommits = new AtomicInteger();
+        manager.addListener(new TransactionExecutionListener() {
+            @Override
+            public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+                if (commitFailure == null && Thread.currentThread().getName().equals("expense-ingest")) {
+                    writerCommits.incrementAndGet();
+                }
+            }
+        });
+
+        int requests = 200;
+        List<Future<String>> responses = new ArrayList<>();
+        try (ExecutorService clients = Executors.newFixedThreadPool(20)) {
+            for (int i = 0; i < requests; i++) {
+                String body = objectMapper.writeValueAsString(request("Card payment " + i, "1.25"));
+                responses.add(clients.submit(() -> mockMvc.perform(post("/api/expenses")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                        .andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString()));
+            }
+        } finally {
+            manager.setTransactionExecutionListeners(listeners);
+        }
+        // With 20 callers waiting at once, groups hold several expenses each
+        assertThat(writerCommits.get()).isPositive().isLessThan(requests / 2);
+
+        List<Long> ids = new ArrayList<>();
+        for (Future<String> response : responses) {
+            ids.add(objectMapper.readTree(response.get()).get("id").asLong());
+        }
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(expenseRepository.count()).isEqualTo(requests);
+
+        mockMvc.perform(get("/api/summary").param("month", "2024-12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSpent", is(250.00)));
+        mockMvc.perform(get("/api/summary/rollup/verify"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.consistent", is(true)));
+    }
+
+    /**
+     * Tests that an unknown category is still rejected before anything is queued.
+     */
+    @Test
+    void createInvalidCategory() throws Exception {
+        System.out.println("--- Now testing bad request for invalid category with group commit ---");
+
+        CreateExpenseRequest request = new CreateExpenseRequest(
+                new BigDecimal("45.00"), "Lunch", LocalDate.of(2024, 12, 20).toString(), 999L);
+
+        mockMvc.perform(post("/api/expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+        assertThat(expenseRepository.count()).isZero();
+    }
+
+    private CreateExpenseRequest request(String description, String amount) {
+        return new CreateExpenseRequest(new BigDecimal(amount), description, "2024-12-20", testCategory.getId());
+    }
+}
@@ -0,0 +1,185 @@
+package com.budget.controller;
+
+import com.budget.config.DefaultTenantExtension;
+import com.budget.dto.CreateRecurringExpenseRequest;
+import com.budget.model.Cadence;
+import com.budget.model.Category;
+import com.budget.model.Expense;
+import com.budget.model.RecurringExpense;
+import com.budget.repository.CategoryMonthTotalRepository;
+import com.budget.repository.CategoryRepository;
+import com.budget.repository.ExpenseRepository;
+import com.budget.repository.RecurringExpenseRepository;
+import com.budget.service.RecurringExpenseService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for RecurringExpenseController REST endpoints.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ExtendWith(DefaultTenantExtension.class)
+class RecurringExpenseControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ExpenseRepository expenseRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryMonthTotalRepository categoryMonthTotalRepository;
+
+    @Autowired
+    private RecurringExpenseRepository recurringExpenseRepository;
+
+    @Autowired
+    private RecurringExpenseService recurringExpenseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Category rent;
+
+    @BeforeAll
+    static void beforeAll() {
+        System.out.println("=== Running RecurringExpenseControllerTest ===");
+    }
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        recurringExpenseRepository.deleteAll();
+        expenseRepository.deleteAll();
+        categoryRepository.deleteAll();
+        categoryMonthTotalRepository.deleteAll();
+
+        rent = categoryRepository.save(new Category("Rent", "#3b82f6", new BigDecimal("2000.00"), ""));
+    }
+
+    /**
+     * Tests that a schedule starting in the past is backfilled once, with each
+     * occurrence counted in its month's summary, and that later runs post nothing more.
+     */
+    @Test
+    void backfillPostsEachOccurrenceOnce() throws Exception {
+        System.out.println("--- Now testing recurring expense backfill ---");
+
+        CreateRecurringExpenseRequest request = new CreateRecurringExpenseRequest(
+                new BigDecimal("1500.00"), "Rent", rent.getId(), "monthly", "2024-01-31", "2024-12-31");
+
+        String body = mockMvc.perform(post("/api/recurring-expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cadence", is("MONTHLY")))
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readTree(body).get("id").asLong();
+
+        mockMvc.perform(post("/api/recurring-expenses/materialize"))
+                .andExpect(status().isAccepted());
+        // Runs are serialized, so once this returns everything due is posted, by whichever run
+        recurringExpenseService.materializeDue(LocalDate.now());
+
+        List<Expense> posted = postedBy(id);
+        assertThat(posted).hasSize(12);
+        // Short months fall on their last day without shifting later months
+        assertThat(posted).extracting(Expense::getDate)
+                .contains(LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 31), LocalDate.of(2024, 4, 30));
+
+        mockMvc.perform(get("/api/summary").param("month", "2024-02"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSpent", is(1500.00)));
+
+        assertThat(recurringExpenseService.materializeDue(LocalDate.now())).isZero();
+        assertThat(postedBy(id)).hasSize(12);
+
+        mockMvc.perform(get("/api/recurring-expenses"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nextDate").value(nullValue()));
+    }
+
+    /**
+     * Tests that schedules with an unknown cadence or category, reversed dates, a
+     * non-positive or sub-cent amount, or a start date past the backfill limit are rejected.
+     */
+    @Test
+    void createRejectsInvalidSchedules() throws Exception {
+        System.out.println("--- Now testing recurring expense validation ---");
+
+        List<CreateRecurringExpenseRequest> invalid = List.of(
+                new CreateRecurringExpenseRequest(new BigDecimal("10.00"), "", rent.getId(), "daily", "2024-01-01", null),
+                new CreateRecurringExpenseRequest(new BigDecimal("10.00"), "", 999999L, "weekly", "2024-01-01", null),
+                new CreateRecurringExpenseRequest(new BigDecimal("10.00"), "", rent.getId(), "weekly", "2024-02-01", "2024-01-01"),
+                new CreateRecurringExpenseRequest(null, "", rent.getId(), "weekly", "2024-01-01", null),
+                new CreateRecurringExpenseRequest(new BigDecimal("-10.00"), "", rent.getId(), "weekly", "2024-01-01", null),
+                new CreateRecurringExpenseRequest(new BigDecimal("10.005"), "", rent.getId(), "weekly", "2024-01-01", null),
+                new CreateRecurringExpenseRequest(new BigDecimal("10.00"), "", rent.getId(), "weekly", "1900-01-01", null));
+
+        for (CreateRecurringExpenseRequest request : invalid) {
+            mockMvc.perform(post("/api/recurring-expenses")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isBadRequest());
+        }
+        assertThat(recurringExpenseRepository.count()).isZero();
+    }
+
+    /**
+     * Tests that a schedule whose occurrences cannot be posted is skipped without
+     * holding back the other schedules, and is posted by a later run once it can be.
+     */
+    @Test
+    void failingScheduleDoesNotBlockOthers() throws Exception {
+        System.out.println("--- Now testing isolation of a failing recurring expense ---");
+
+        RecurringExpense gym = recurringExpenseRepository.save(new RecurringExpense(rent.getId(),
+                new BigDecimal("40.00"), "Gym", Cadence.MONTHLY, LocalDate.of(2024, 1, 31), LocalDate.of(2024, 3, 31)));
+        RecurringExpense phone = recurringExpenseRepository.save(new RecurringExpense(rent.getId(),
+                new BigDecimal("25.00"), "Phone", Cadence.MONTHLY, LocalDate.of(2024, 1, 15), LocalDate.of(2024, 3, 15)));
+        // Takes the natural key of the phone schedule's first occurrence
+        Expense blocking = new Expense(new BigDecimal("25.00"), "Phone", LocalDate.of(2024, 1, 15), rent);
+        blocking.setRecurrence(phone.getId(), 0);
+        blocking = expenseRepository.save(blocking);
+
+        assertThat(recurringExpenseService.materializeDue(LocalDate.now())).isEqualTo(3);
+        assertThat(postedBy(gym.getId())).hasSize(3);
+        assertThat(postedBy(phone.getId())).hasSize(1);
+
+        expenseRepository.delete(blocking);
+        assertThat(recurringExpenseService.materializeDue(LocalDate.now())).isEqualTo(3);
+        assertThat(postedBy(phone.getId())).hasSize(3);
+    }
+
+    private List<Expense> postedBy(Long recurringExpenseId) {
+        return expenseRepository.findAll().stream()
+                .filter(expense -> recurringExpenseId.equals(expense.getRecurringExpenseId()))
+                .toList();
+    }
+}
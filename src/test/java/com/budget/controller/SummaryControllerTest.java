@@ -1,20 +1,31 @@
 package com.budget.controller;
 
+import com.budget.config.DefaultTenantExtension;
+import com.budget.dto.CreateExpenseRequest;
+import com.budget.dto.RecategorizeRequest;
 import com.budget.model.Category;
 import com.budget.model.Expense;
+import com.budget.repository.CategoryMonthTotalRepository;
 import com.budget.repository.CategoryRepository;
 import com.budget.repository.ExpenseRepository;
+import com.budget.service.ExpenseService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -24,17 +35,30 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  */
 @SpringBootTest
 @AutoConfigureMockMvc
+@ExtendWith(DefaultTenantExtension.class)
 class SummaryControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private ExpenseRepository expenseRepository;
 
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CategoryMonthTotalRepository categoryMonthTotalRepository;
+
+    @Autowired
+    private ExpenseService expenseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     private Category groceries;
     private Category rent;
     private Category utilities;
@@ -46,8 +70,10 @@ class SummaryControllerTest {
 
     @BeforeEach
     void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
         expenseRepository.deleteAll();
         categoryRepository.deleteAll();
+        categoryMonthTotalRepository.deleteAll();
 
         groceries = new Category("Groceries", "#22c55e", new BigDecimal("500.00"), "");
         groceries = categoryRepository.save(groceries);
@@ -82,13 +108,13 @@ class SummaryControllerTest {
     void summaryWithExpenses() throws Exception {
         System.out.println("--- Now testing summary total calculation ---");
 
-        expenseRepository.save(new Expense(
+        expenseService.create(new Expense(
                 new BigDecimal("150.00"),
                 "Weekly groceries",
                 LocalDate.of(2024, 12, 10),
                 groceries
         ));
-        expenseRepository.save(new Expense(
+        expenseService.create(new Expense(
                 new BigDecimal("2000.00"),
                 "Monthly rent",
                 LocalDate.of(2024, 12, 1),
@@ -108,7 +134,7 @@ class SummaryControllerTest {
     void categoryBreakdown() throws Exception {
         System.out.println("--- Now testing category breakdown calculation ---");
 
-        expenseRepository.save(new Expense(
+        expenseService.create(new Expense(
                 new BigDecimal("400.00"),
                 "Groceries",
                 LocalDate.of(2024, 12, 15),
@@ -129,7 +155,7 @@ class SummaryControllerTest {
     void statusOk() throws Exception {
         System.out.println("--- Now testing 'ok' status when under limit ---");
 
-        expenseRepository.save(new Expense(
+        expenseService.create(new Expense(
                 new BigDecimal("100.00"),
                 "Small purchase",
                 LocalDate.of(2024, 12, 15),
@@ -148,7 +174,7 @@ class SummaryControllerTest {
     void statusWarning() throws Exception {
         System.out.println("--- Now testing 'warning' status when approaching limit ---");
 
-        expenseRepository.save(new Expense(
+        expenseService.create(new Expense(
                 new BigDecimal("450.00"),
                 "Big grocery run",
                 LocalDate.of(2024, 12, 15),
@@ -167,7 +193,7 @@ class SummaryControllerTest {
     void statusAtExactLimit() throws Exception {
         System.out.println("--- Now testing 'warning' status when at exactly 100% limit ---");
 
-        expenseRepository.save(new Expense(
+        expenseService.create(new Expense(
                 new BigDecimal("500.00"),
                 "Exact budget groceries",
                 LocalDate.of(2024, 12, 15),
@@ -187,7 +213,7 @@ class SummaryControllerTest {
     void statusExceeded() throws Exception {
         System.out.println("--- Now testing 'exceeded' status when over limit ---");
 
-        expenseRepository.save(new Expense(
+        expenseService.create(new Expense(
                 new BigDecimal("550.00"),
                 "Over budget groceries",
                 LocalDate.of(2024, 12, 15),
@@ -199,6 +225,39 @@ class SummaryControllerTest {
                 .andExpect(jsonPath("$.categoryBreakdown[?(@.categoryName == 'Groceries')].status", contains("exceeded")));
     }
 
+    /**
+     * Tests that percentages are rounded half up to two decimal places.
+     */
+    @Test
+    void percentRoundsHalfUp() throws Exception {
+        System.out.println("--- Now testing percentage rounding ---");
+
+        expenseService.create(new Expense(
+                new BigDecimal("1.25"),
+                "Light bulb",
+                LocalDate.of(2024, 12, 15),
+                utilities
+        ));
+        expenseService.create(new Expense(
+                new BigDecimal("100.00"),
+                "Rent deposit",
+                LocalDate.of(2024, 12, 1),
+                rent
+        ));
+        expenseService.create(new Expense(
+                new BigDecimal("566.66"),
+                "Rent balance",
+                LocalDate.of(2024, 12, 2),
+                rent
+        ));
+
+        mockMvc.perform(get("/api/summary").param("month", "2024-12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSpent", is(667.91)))
+                .andExpect(jsonPath("$.categoryBreakdown[?(@.categoryName == 'Utilities')].percentUsed", contains(0.63)))
+                .andExpect(jsonPath("$.categoryBreakdown[?(@.categoryName == 'Rent')].percentUsed", contains(33.33)));
+    }
+
     /**
      * Tests that only expenses from the requested month are included.
      */
@@ -206,13 +265,13 @@ class SummaryControllerTest {
     void filterByMonth() throws Exception {
         System.out.println("--- Now testing expense filtering by month ---");
 
-        expenseRepository.save(new Expense(
+        expenseService.create(new Expense(
                 new BigDecimal("100.00"),
                 "December expense",
                 LocalDate.of(2024, 12, 15),
                 groceries
         ));
-        expenseRepository.save(new Expense(
+        expenseService.create(new Expense(
                 new BigDecimal("200.00"),
                 "November expense",
                 LocalDate.of(2024, 11, 15),
@@ -247,7 +306,7 @@ class SummaryControllerTest {
         Category noLimit = new Category("No Limit", "#000000", BigDecimal.ZERO, "");
         noLimit = categoryRepository.save(noLimit);
 
-        expenseRepository.save(new Expense(
+        expenseService.create(new Expense(
                 new BigDecimal("1000.00"),
                 "Big expense",
                 LocalDate.of(2024, 12, 15),
@@ -258,4 +317,420 @@ class SummaryControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.categoryBreakdown[?(@.categoryName == 'No Limit')].status", contains("ok")));
     }
+
+    /**
+     * Tests that creating an expense is visible after the month's summary has been cached.
+     */
+    @Test
+    void createEvictsCachedSummary() throws Exception {
+        System.out.println("--- Now testing summary cache eviction on expense create ---");
+
+        mockMvc.perform(get("/api/summary").param("month", "2024-12"))
+                .andExpect(jsonPath("$.totalSpent", is(0)));
+
+        CreateExpenseRequest request = new CreateExpenseRequest(
+                new BigDecimal("60.00"), "Takeout", "2024-12-12", groceries.getId());
+        mockMvc.perform(post("/api/expenses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/summary").param("month", "2024-12"))
+                .andExpect(jsonPath("$.totalSpent", is(60.00)));
+    }
+
+    /**
+     * Tests that an unchanged summary is answered with 304 until an expense in that month changes.
+     */
+    @Test
+    void summaryNotModifiedUntilMonthChanges() throws Exception {
+        System.out.println("--- Now testing conditional requests for the monthly summary ---");
+
+        String etag = mockMvc.perform(get("/api/summary").param("month", "2024-12"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/summary").param("month", "2024-12").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // A write in another month leaves this month's ETag valid
+        expenseService.create(new Expense(
+                new BigDecimal("30.00"),
+                "November lunch",
+                LocalDate.of(2024, 11, 5),
+                groceries
+        ));
+        mockMvc.perform(get("/api/summary").param("month", "2024-12").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        expenseService.create(new Expense(
+                new BigDecimal("45.00"),
+                "December lunch",
+                LocalDate.of(2024, 12, 5),
+                groceries
+        ));
+        mockMvc.perform(get("/api/summary").param("month", "2024-12").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etag)))
+                .andExpect(jsonPath("$.totalSpent", is(45.00)));
+    }
+
+    /**
+     * Tests that a stream subscriber gets the summary, then an update for the changed category only.
+     */
+    @Test
+    void streamPushesCategoryUpdates() throws Exception {
+        System.out.println("--- Now testing live summary updates over server-sent events ---");
+
+        MvcResult result = mockMvc.perform(get("/api/summary/stream").param("month", "2024-12"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(result.getResponse().getContentAsString()).contains("event:summary");
+
+        expenseService.create(new Expense(
+                new BigDecimal("30.00"),
+                "November lunch",
+                LocalDate.of(2024, 11, 5),
+                groceries
+        ));
+        expenseService.create(new Expense(
+                new BigDecimal("45.00"),
+                "December lunch",
+                LocalDate.of(2024, 12, 5),
+                groceries
+        ));
+
+        String events = result.getResponse().getContentAsString();
+        for (int attempt = 0; attempt < 100 && !events.contains("event:category"); attempt++) {
+            Thread.sleep(50);
+            events = result.getResponse().getContentAsString();
+        }
+        assertThat(events).contains("event:category");
+        assertThat(events).contains("\"categoryName\":\"Groceries\"");
+        assertThat(events).contains("\"spent\":45.00");
+        assertThat(events).doesNotContain("\"spent\":30.00");
+    }
+
+    /**
+     * Tests that changing a category limit is visible after the summary has been cached.
+     */
+    @Test
+    void categoryUpdateEvictsCachedSummary() throws Exception {
+        System.out.println("--- Now testing summary cache eviction on category update ---");
+
+        mockMvc.perform(get("/api/summary").param("month", "2024-12"))
+                .andExpect(jsonPath("$.totalLimit", is(2700.00)));
+
+        mockMvc.perform(put("/api/categories/" + rent.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"monthlyLimit\": 1500.00}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/summary").param("month", "2024-12"))
+                .andExpect(jsonPath("$.totalLimit", is(2200.00)));
+    }
+
+    /**
+     * Tests that moving an expense to another month and category updates both summaries.
+     */
+    @Test
+    void updateMovesSpending() throws Exception {
+        System.out.println("--- Now testing summary after an expense moves month and category ---");
+
+        Expense expense = expenseService.create(new Expense(
+                new BigDecimal("100.00"),
+                "Misfiled",
+                LocalDate.of(2024, 12, 15),
+                groceries
+        ));
+
+        CreateExpenseRequest request = new CreateExpenseRequest(
+                new BigDecimal("150.00"), null, "2024-11-20", utilities.getId());
+        mockMvc.perform(put("/api/expenses/" + expense.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/summary").param("month", "2024-12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSpent", is(0.00)));
+        mockMvc.perform(get("/api/summary").param("month", "2024-11"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSpent", is(150.00)))
+                .andExpect(jsonPath("$.categoryBreakdown[?(@.categoryName == 'Utilities')].spent", contains(150.00)));
+    }
+
+    /**
+     * Tests that deleting an expense removes it from the summary.
+     */
+    @Test
+    void deleteRemovesSpending() throws Exception {
+        System.out.println("--- Now testing summary after an expense is deleted ---");
+
+        Expense expense = expenseService.create(new Expense(
+                new BigDecimal("80.00"),
+                "Refunded",
+                LocalDate.of(2024, 12, 15),
+                groceries
+        ));
+
+        mockMvc.perform(delete("/api/expenses/" + expense.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/summary").param("month", "2024-12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalSpent", is(0.00)));
+    }
+
+    /**
+     * Tests that the trend covers every month in the range, including months without spending.
+     */
+    @Test
+    void trendAcrossMonths() throws Exception {
+        System.out.println("--- Now testing multi-month spending trend ---");
+
+        expenseService.create(new Expense(
+                new BigDecimal("100.00"),
+                "October groceries",
+                LocalDate.of(2024, 10, 5),
+                groceries
+        ));
+        expenseService.create(new Expense(
+                new BigDecimal("2000.00"),
+                "December rent",
+                LocalDate.of(2024, 12, 1),
+                rent
+        ));
+        expenseService.create(new Expense(
+                new BigDecimal("50.00"),
+                "December groceries",
+                LocalDate.of(2024, 12, 20),
+                groceries
+        ));
+        expenseService.create(new Expense(
+                new BigDecimal("75.00"),
+                "Outside the range",
+                LocalDate.of(2025, 1, 3),
+                groceries
+        ));
+
+        mockMvc.perform(get("/api/summary/trend").param("from", "2024-10").param("to", "2024-12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].month", is(10)))
+                .andExpect(jsonPath("$[0].totalSpent", is(100.00)))
+                .andExpect(jsonPath("$[1].month", is(11)))
+                .andExpect(jsonPath("$[1].totalSpent", is(0)))
+                .andExpect(jsonPath("$[1].categories", hasSize(0)))
+                .andExpect(jsonPath("$[2].month", is(12)))
+                .andExpect(jsonPath("$[2].totalSpent", is(2050.00)))
+                .andExpect(jsonPath("$[2].categories", hasSize(2)));
+    }
+
+    /**
+     * Tests that a range summary adds up every month in the range and scales limits
+     * by the number of months.
+     */
+    @Test
+    void rangeSummaryScalesLimits() throws Exception {
+        System.out.println("--- Now testing summary over a range of months ---");
+
+        for (int month = 1; month <= 12; month++) {
+            expenseService.create(new Expense(
+                    new BigDecimal("450.00"),
+                    "Groceries",
+                    LocalDate.of(2024, month, 10),
+                    groceries
+            ));
+        }
+        expenseService.create(new Expense(
+                new BigDecimal("2000.00"),
+                "Rent",
+                LocalDate.of(2024, 3, 1),
+                rent
+        ));
+        expenseService.create(new Expense(
+                new BigDecimal("75.00"),
+                "Outside the range",
+                LocalDate.of(2025, 1, 3),
+                groceries
+        ));
+
+        // One month cached beforehand must give the same result as the others
+        mockMvc.perform(get("/api/summary").param("month", "2024-06"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/summary/range").param("from", "2024-01").param("to", "2024-12"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from", is("2024-01")))
+                .andExpect(jsonPath("$.months", is(12)))
+                .andExpect(jsonPath("$.totalSpent", is(7400.00)))
+                .andExpect(jsonPath("$.totalLimit", is(32400.00)))
+                .andExpect(jsonPath("$.categoryBreakdown[?(@.categoryName == 'Groceries')].spent", contains(5400.00)))
+                .andExpect(jsonPath("$.categoryBreakdown[?(@.categoryName == 'Groceries')].limit", contains(6000.00)))
+                .andExpect(jsonPath("$.categoryBreakdown[?(@.categoryName == 'Groceries')].percentUsed", contains(90.0)))
+                .andExpect(jsonPath("$.categoryBreakdown[?(@.categoryName == 'Groceries')].status", contains("warning")))
+                .andExpect(jsonPath("$.categoryBreakdown[?(@.categoryName == 'Rent')].percentUsed", contains(8.33)));
+
+        mockMvc.perform(get("/api/summary/range").param("from", "2024-12").param("to", "2024-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Tests that reversed or malformed trend ranges are rejected.
+     */
+    @Test
+    void trendInvalidRange() throws Exception {
+        System.out.println("--- Now testing trend with an invalid range ---");
+
+        mockMvc.perform(get("/api/summary/trend").param("from", "2024-12").param("to", "2024-10"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/summary/trend").param("from", "2024-13").param("to", "2025-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Tests that verify reports drift and rebuild repairs it.
+     */
+    @Test
+    void rollupVerifyAndRebuild() throws Exception {
+        System.out.println("--- Now testing rollup verification and rebuild ---");
+
+        expenseService.create(new Expense(
+                new BigDecimal("100.00"),
+                "Tracked",
+                LocalDate.of(2024, 12, 15),
+                groceries
+        ));
+        expenseRepository.save(new Expense(
+                new BigDecimal("50.00"),
+                "Written around the rollup",
+                LocalDate.of(2024, 12, 16),
+                groceries
+        ));
+
+        mockMvc.perform(get("/api/summary/rollup/verify"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.consistent", is(false)))
+                .andExpect(jsonPath("$.mismatches", hasSize(1)));
+
+        mockMvc.perform(post("/api/summary/rollup/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.consistent", is(true)));
+
+        mockMvc.perform(get("/api/summary").param("month", "2024-12"))
+                .andExpect(jsonPath("$.totalSpent", is(150.00)));
+    }
+
+    /**
+     * Tests that a bulk delete by filter removes spending and leaves the rollup consistent.
+     */
+    @Test
+    void bulkDeleteKeepsRollupConsistent() throws Exception {
+        System.out.println("--- Now testing bulk delete by filter ---");
+
+        Expense kept = expenseService.create(new Expense(
+                new BigDecimal("40.00"), "Kept", LocalDate.of(2024, 11, 20), groceries));
+        expenseService.create(new Expense(
+                new BigDecimal("60.00"), "Bad import", LocalDate.of(2024, 12, 3), groceries));
+        expenseService.create(new Expense(
+                new BigDecimal("70.00"), "Bad import", LocalDate.of(2024, 12, 4), groceries));
+        Expense rentPayment = expenseService.create(new Expense(
+                new BigDecimal("2000.00"), "Rent", LocalDate.of(2024, 12, 1), rent));
+
+        mockMvc.perform(get("/api/summary").param("month", "2024-12"))
+                .andExpect(jsonPath("$.totalSpent", is(2130.00)));
+
+        mockMvc.perform(post("/api/expenses/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"categoryId\": " + groceries.getId() + ", \"from\": \"2024-12-01\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(2)));
+
+        mockMvc.perform(post("/api/expenses/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [" + rentPayment.getId() + ", 999999]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(1)));
+
+        mockMvc.perform(get("/api/summary").param("month", "2024-12"))
+                .andExpect(jsonPath("$.totalSpent", is(0.00)));
+        mockMvc.perform(get("/api/summary").param("month", "2024-11"))
+                .andExpect(jsonPath("$.totalSpent", is(40.00)));
+        mockMvc.perform(get("/api/summary/rollup/verify"))
+                .andExpect(jsonPath("$.consistent", is(true)));
+        assertThat(expenseRepository.findById(kept.getId())).isPresent();
+    }
+
+    /**
+     * Tests that a bulk delete with neither IDs nor a filter is rejected.
+     */
+    @Test
+    void bulkDeleteRequiresCriteria() throws Exception {
+        System.out.println("--- Now testing bulk delete without criteria ---");
+
+        mockMvc.perform(post("/api/expenses/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Tests that recategorizing moves spending between categories in every month.
+     */
+    @Test
+    void recategorizeMovesSpending() throws Exception {
+        System.out.println("--- Now testing bulk recategorize ---");
+
+        expenseService.create(new Expense(
+                new BigDecimal("25.00"), "Light bulbs", LocalDate.of(2024, 11, 8), groceries));
+        expenseService.create(new Expense(
+                new BigDecimal("35.00"), "Batteries", LocalDate.of(2024, 12, 8), groceries));
+        expenseService.create(new Expense(
+                new BigDecimal("90.00"), "Power bill", LocalDate.of(2024, 12, 9), utilities));
+
+        RecategorizeRequest request = new RecategorizeRequest(groceries.getId(), utilities.getId());
+        mockMvc.perform(post("/api/expenses/recategorize")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected", is(2)));
+
+        mockMvc.perform(get("/api/summary").param("month", "2024-12"))
+                .andExpect(jsonPath("$.categoryBreakdown[?(@.categoryName == 'Groceries')].spent", contains(0.00)))
+                .andExpect(jsonPath("$.categoryBreakdown[?(@.categoryName == 'Utilities')].spent", contains(125.00)));
+        mockMvc.perform(get("/api/summary").param("month", "2024-11"))
+                .andExpect(jsonPath("$.categoryBreakdown[?(@.categoryName == 'Utilities')].spent", contains(25.00)));
+        mockMvc.perform(get("/api/expenses").param("month", "2024-12"))
+                .andExpect(jsonPath("$[*].categoryName", everyItem(is("Utilities"))));
+        mockMvc.perform(get("/api/summary/rollup/verify"))
+                .andExpect(jsonPath("$.consistent", is(true)));
+    }
+
+    /**
+     * Tests that a category with expenses is only deleted when its expenses are moved.
+     */
+    @Test
+    void deleteCategoryWithExpenses() throws Exception {
+        System.out.println("--- Now testing category delete with expenses ---");
+
+        expenseService.create(new Expense(
+                new BigDecimal("15.00"), "Snacks", LocalDate.of(2024, 12, 10), groceries));
+
+        mockMvc.perform(delete("/api/categories/" + groceries.getId()))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(delete("/api/categories/" + groceries.getId()).param("moveTo", groceries.getId().toString()))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(delete("/api/categories/" + groceries.getId()).param("moveTo", utilities.getId().toString()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/summary").param("month", "2024-12"))
+                .andExpect(jsonPath("$.categoryBreakdown", hasSize(2)))
+                .andExpect(jsonPath("$.categoryBreakdown[?(@.categoryName == 'Utilities')].spent", contains(15.00)));
+        mockMvc.perform(get("/api/summary/rollup/verify"))
+                .andExpect(jsonPath("$.consistent", is(true)));
+    }
 }
@@ -1,13 +1,17 @@
 package com.budget.repository;
 
+import com.budget.config.DefaultTenantExtension;
+import com.budget.config.TenantContext;
 import com.budget.model.Category;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -16,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  * Unit tests for CategoryRepository JPA operations.
  */
 @DataJpaTest
+@ExtendWith(DefaultTenantExtension.class)
 class CategoryRepositoryTest {
 
     @Autowired
@@ -28,7 +33,7 @@ class CategoryRepositoryTest {
 
     @BeforeEach
     void setUp() {
-        categoryRepository.deleteAll();
+        categoryRepository.deleteAllInBatch();
     }
 
     /**
@@ -58,7 +63,7 @@ class CategoryRepositoryTest {
         Category category = new Category("Rent", "#3b82f6", BigDecimal.ZERO, "");
         categoryRepository.save(category);
 
-        Optional<Category> found = categoryRepository.findByName("Rent");
+        Optional<Category> found = categoryRepository.findByTenantIdAndName(TenantContext.DEFAULT_TENANT, "Rent");
 
         assertThat(found).isPresent();
         assertThat(found.get().getName()).isEqualTo("Rent");
@@ -71,7 +76,7 @@ class CategoryRepositoryTest {
     void findByNameNotExists() {
         System.out.println("--- Now testing findByName when category does not exist ---");
 
-        Optional<Category> found = categoryRepository.findByName("NonExistent");
+        Optional<Category> found = categoryRepository.findByTenantIdAndName(TenantContext.DEFAULT_TENANT, "NonExistent");
 
         assertThat(found).isEmpty();
     }
@@ -86,7 +91,7 @@ class CategoryRepositoryTest {
         Category category = new Category("Utilities", "#f59e0b", BigDecimal.ZERO, "");
         categoryRepository.save(category);
 
-        boolean exists = categoryRepository.existsByName("Utilities");
+        boolean exists = categoryRepository.existsByTenantIdAndName(TenantContext.DEFAULT_TENANT, "Utilities");
 
         assertThat(exists).isTrue();
     }
@@ -98,11 +103,31 @@ class CategoryRepositoryTest {
     void existsByNameFalse() {
         System.out.println("--- Now testing existsByName returns false ---");
 
-        boolean exists = categoryRepository.existsByName("NonExistent");
+        boolean exists = categoryRepository.existsByTenantIdAndName(TenantContext.DEFAULT_TENANT, "NonExistent");
 
         assertThat(exists).isFalse();
     }
 
+    /**
+     * Tests that two tenants can use the same name and that lookups only see their own tenant.
+     */
+    @Test
+    void namesAreScopedByTenant() {
+        System.out.println("--- Now testing category names are unique per tenant ---");
+
+        Category own = categoryRepository.save(new Category("Rent", "#3b82f6", BigDecimal.ZERO, ""));
+        Category other = new Category("Rent", "#3b82f6", BigDecimal.ZERO, "");
+        other.setTenantId(2L);
+        other = categoryRepository.save(other);
+
+        assertThat(own.getTenantId()).isEqualTo(TenantContext.DEFAULT_TENANT);
+        assertThat(categoryRepository.findByTenantIdAndName(2L, "Rent")).map(Category::getId).contains(other.getId());
+        assertThat(categoryRepository.findByIdAndTenantId(other.getId(), TenantContext.DEFAULT_TENANT)).isEmpty();
+        assertThat(categoryRepository.findByTenantIdOrderByIdAsc(TenantContext.DEFAULT_TENANT))
+                .extracting(Category::getId)
+                .isEqualTo(List.of(own.getId()));
+    }
+
     /**
      * Tests that findAll returns all categories.
      */
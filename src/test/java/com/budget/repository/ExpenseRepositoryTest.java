@@ -1,10 +1,14 @@
 package com.budget.repository;
 
+import com.budget.config.DefaultTenantExtension;
+import com.budget.config.TenantContext;
+import com.budget.dto.CategoryTotalDTO;
 import com.budget.model.Category;
 import com.budget.model.Expense;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 
@@ -18,6 +22,7 @@ import static org.assertj.core.api.Assertions.assertThat;
  * Unit tests for ExpenseRepository JPA operations.
  */
 @DataJpaTest
+@ExtendWith(DefaultTenantExtension.class)
 class ExpenseRepositoryTest {
 
     @Autowired
@@ -36,8 +41,8 @@ class ExpenseRepositoryTest {
 
     @BeforeEach
     void setUp() {
-        expenseRepository.deleteAll();
-        categoryRepository.deleteAll();
+        expenseRepository.deleteAllInBatch();
+        categoryRepository.deleteAllInBatch();
 
         groceries = new Category("Groceries", "#22c55e", BigDecimal.ZERO, "");
         groceries = categoryRepository.save(groceries);
@@ -95,7 +100,7 @@ class ExpenseRepositoryTest {
                 groceries
         ));
 
-        List<Expense> decemberExpenses = expenseRepository.findByMonth(2024, 12);
+        List<Expense> decemberExpenses = expenseRepository.findByMonth(TenantContext.DEFAULT_TENANT, 2024, 12);
 
         assertThat(decemberExpenses).hasSize(2);
         assertThat(decemberExpenses).allMatch(e -> e.getDate().getMonthValue() == 12);
@@ -115,11 +120,49 @@ class ExpenseRepositoryTest {
                 groceries
         ));
 
-        List<Expense> novemberExpenses = expenseRepository.findByMonth(2024, 11);
+        List<Expense> novemberExpenses = expenseRepository.findByMonth(TenantContext.DEFAULT_TENANT, 2024, 11);
 
         assertThat(novemberExpenses).isEmpty();
     }
 
+    /**
+     * Tests that findByMonth includes the last day of the month and excludes the first day of the next.
+     */
+    @Test
+    void findByMonthBoundaries() {
+        System.out.println("--- Now testing findByMonth month boundaries ---");
+
+        expenseRepository.save(new Expense(
+                new BigDecimal("10.00"),
+                "First day",
+                LocalDate.of(2024, 2, 1),
+                groceries
+        ));
+        expenseRepository.save(new Expense(
+                new BigDecimal("20.00"),
+                "Leap day",
+                LocalDate.of(2024, 2, 29),
+                groceries
+        ));
+        expenseRepository.save(new Expense(
+                new BigDecimal("30.00"),
+                "Next month",
+                LocalDate.of(2024, 3, 1),
+                groceries
+        ));
+        expenseRepository.save(new Expense(
+                new BigDecimal("40.00"),
+                "Previous month",
+                LocalDate.of(2024, 1, 31),
+                groceries
+        ));
+
+        List<Expense> february = expenseRepository.findByMonth(TenantContext.DEFAULT_TENANT, 2024, 2);
+
+        assertThat(february).extracting(Expense::getDescription)
+                .containsExactly("Leap day", "First day");
+    }
+
     /**
      * Tests that findByMonth orders expenses by date descending.
      */
@@ -146,7 +189,7 @@ class ExpenseRepositoryTest {
                 groceries
         ));
 
-        List<Expense> expenses = expenseRepository.findByMonth(2024, 12);
+        List<Expense> expenses = expenseRepository.findByMonth(TenantContext.DEFAULT_TENANT, 2024, 12);
 
         assertThat(expenses).hasSize(3);
         assertThat(expenses.get(0).getDate()).isEqualTo(LocalDate.of(2024, 12, 25));
@@ -175,13 +218,56 @@ class ExpenseRepositoryTest {
         ));
 
         List<Expense> groceriesExpenses = expenseRepository.findByCategoryAndMonth(
-                groceries.getId(), 2024, 12
+                TenantContext.DEFAULT_TENANT, groceries.getId(), 2024, 12
         );
 
         assertThat(groceriesExpenses).hasSize(1);
         assertThat(groceriesExpenses.get(0).getCategory().getName()).isEqualTo("Groceries");
     }
 
+    /**
+     * Tests that sumByCategoryForMonth returns one total per category for the month.
+     */
+    @Test
+    void sumByCategoryForMonth() {
+        System.out.println("--- Now testing sumByCategoryForMonth groups totals by category ---");
+
+        expenseRepository.save(new Expense(
+                new BigDecimal("100.00"),
+                "Groceries Dec 1",
+                LocalDate.of(2024, 12, 5),
+                groceries
+        ));
+        expenseRepository.save(new Expense(
+                new BigDecimal("50.00"),
+                "Groceries Dec 2",
+                LocalDate.of(2024, 12, 20),
+                groceries
+        ));
+        expenseRepository.save(new Expense(
+                new BigDecimal("2000.00"),
+                "Rent Dec",
+                LocalDate.of(2024, 12, 1),
+                rent
+        ));
+        expenseRepository.save(new Expense(
+                new BigDecimal("75.00"),
+                "Groceries Nov",
+                LocalDate.of(2024, 11, 15),
+                groceries
+        ));
+
+        List<CategoryTotalDTO> totals = expenseRepository.sumByCategoryForMonth(TenantContext.DEFAULT_TENANT, 2024, 12);
+
+        assertThat(totals).hasSize(2);
+        assertThat(totals).filteredOn(t -> t.categoryId().equals(groceries.getId()))
+                .singleElement()
+                .satisfies(t -> assertThat(t.spent()).isEqualByComparingTo(new BigDecimal("150.00")));
+        assertThat(totals).filteredOn(t -> t.categoryId().equals(rent.getId()))
+                .singleElement()
+                .satisfies(t -> assertThat(t.spent()).isEqualByComparingTo(new BigDecimal("2000.00")));
+    }
+
     /**
      * Tests that findByDateBetween returns expenses within the date range.
      */
@@ -202,7 +288,8 @@ class ExpenseRepositoryTest {
                 groceries
         ));
 
-        List<Expense> expenses = expenseRepository.findByDateBetweenOrderByDateDesc(
+        List<Expense> expenses = expenseRepository.findByTenantIdAndDateBetweenOrderByDateDesc(
+                TenantContext.DEFAULT_TENANT,
                 LocalDate.of(2024, 12, 1),
                 LocalDate.of(2024, 12, 31)
         );
@@ -211,6 +298,30 @@ class ExpenseRepositoryTest {
         assertThat(expenses.get(0).getDescription()).isEqualTo("In range");
     }
 
+    /**
+     * Tests that expenses take their category's tenant and that month queries only see that tenant.
+     */
+    @Test
+    void findByMonthIsScopedByTenant() {
+        System.out.println("--- Now testing findByMonth only returns the tenant's expenses ---");
+
+        Category otherGroceries = new Category("Groceries", "#22c55e", BigDecimal.ZERO, "");
+        otherGroceries.setTenantId(2L);
+        otherGroceries = categoryRepository.save(otherGroceries);
+
+        expenseRepository.save(new Expense(new BigDecimal("10.00"), "Own", LocalDate.of(2024, 12, 15), groceries));
+        Expense other = expenseRepository.save(
+                new Expense(new BigDecimal("20.00"), "Other", LocalDate.of(2024, 12, 15), otherGroceries));
+
+        assertThat(other.getTenantId()).isEqualTo(2L);
+        assertThat(expenseRepository.findByMonth(TenantContext.DEFAULT_TENANT, 2024, 12))
+                .extracting(Expense::getDescription)
+                .containsExactly("Own");
+        assertThat(expenseRepository.sumByCategoryForMonth(2L, 2024, 12))
+                .singleElement()
+                .satisfies(t -> assertThat(t.spent()).isEqualByComparingTo(new BigDecimal("20.00")));
+    }
+
     /**
      * Tests that delete removes an expense.
      */